@@ -0,0 +1,103 @@
+package org.venutolo.texttablebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding 10,000 rows of 10 columns to a new builder with each of the ways rows can be
+ * added, which includes measuring the width of every item.
+ *
+ * @author Rick Venutolo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AddRowBenchmark {
+
+    private static final int NUM_ROWS = 10000;
+
+    private static final int NUM_COLUMNS = 10;
+
+    @Param({"false", "true"})
+    public boolean columnarStorage;
+
+    private Object[][] rows;
+
+    private List<List<Object>> rowLists;
+
+    private long[][] longRows;
+
+    @Setup
+    public void setUp() {
+        rows = new Object[NUM_ROWS][NUM_COLUMNS];
+        rowLists = new ArrayList<List<Object>>(NUM_ROWS);
+        longRows = new long[NUM_ROWS][NUM_COLUMNS];
+        for (int row = 0; row < NUM_ROWS; row++) {
+            for (int column = 0; column < NUM_COLUMNS; column++) {
+                final long item = (long) row * (column + 1);
+                // strings and boxed numbers, the way rows usually arrive
+                rows[row][column] = ((column % 2) == 0) ? ("item" + item) : (Object) item;
+                longRows[row][column] = item;
+            }
+            rowLists.add(Arrays.asList(rows[row]));
+        }
+    }
+
+    private TextTableBuilder newTextTableBuilder() {
+        return new TextTableBuilder().setColumnarStorage(columnarStorage);
+    }
+
+    @Benchmark
+    public TextTableBuilder addRowArray() {
+        final TextTableBuilder textTableBuilder = newTextTableBuilder();
+        for (final Object[] row : rows) {
+            textTableBuilder.addRow(row);
+        }
+        return textTableBuilder;
+    }
+
+    @Benchmark
+    public TextTableBuilder addRowCollection() {
+        final TextTableBuilder textTableBuilder = newTextTableBuilder();
+        for (final List<Object> row : rowLists) {
+            textTableBuilder.addRow(row);
+        }
+        return textTableBuilder;
+    }
+
+    @Benchmark
+    public TextTableBuilder addRows() {
+        return newTextTableBuilder().addRows(rowLists);
+    }
+
+    @Benchmark
+    public TextTableBuilder adoptRow() {
+        // the arrays are never modified, so every invocation can adopt them
+        final TextTableBuilder textTableBuilder = newTextTableBuilder();
+        for (final Object[] row : rows) {
+            textTableBuilder.adoptRow(row);
+        }
+        return textTableBuilder;
+    }
+
+    @Benchmark
+    public TextTableBuilder addLongRow() {
+        final TextTableBuilder textTableBuilder = newTextTableBuilder();
+        for (final long[] row : longRows) {
+            textTableBuilder.addLongRow(row);
+        }
+        return textTableBuilder;
+    }
+
+}
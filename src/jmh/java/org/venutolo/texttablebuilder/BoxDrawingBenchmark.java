@@ -0,0 +1,111 @@
+package org.venutolo.texttablebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing each {@link BoxDrawingCharacters} preset from its box drawing, and rendering a
+ * 1,000 row by 10 column table with it.
+ *
+ * @author Rick Venutolo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoxDrawingBenchmark {
+
+    private static final int NUM_ROWS = 1000;
+
+    private static final int NUM_COLUMNS = 10;
+
+    @Param({"HEAVY", "LIGHT", "CURVED", "DOUBLE", "ASCII"})
+    public String preset;
+
+    private String boxDrawing;
+
+    private TextTableBuilder textTableBuilder;
+
+    private static BoxDrawingCharacters getBoxDrawingCharacters(final String preset) {
+        if ("HEAVY".equals(preset)) {
+            return BoxDrawingCharacters.HEAVY;
+        }
+        if ("LIGHT".equals(preset)) {
+            return BoxDrawingCharacters.LIGHT;
+        }
+        if ("CURVED".equals(preset)) {
+            return BoxDrawingCharacters.CURVED;
+        }
+        if ("DOUBLE".equals(preset)) {
+            return BoxDrawingCharacters.DOUBLE;
+        }
+        if ("ASCII".equals(preset)) {
+            return BoxDrawingCharacters.ASCII;
+        }
+        throw new IllegalArgumentException("Unknown preset: " + preset);
+    }
+
+    private static String toBoxDrawing(final BoxDrawingCharacters boxDrawingCharacters) {
+        // the box drawing the preset was parsed from
+        final char horizontal = boxDrawingCharacters.getHorizontal();
+        final char vertical = boxDrawingCharacters.getVertical();
+        return new StringBuilder()
+                .append(boxDrawingCharacters.getTopLeftCorner())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getTopIntersect())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getTopRightCorner())
+                .append(vertical).append(' ').append(vertical).append(' ').append(vertical)
+                .append(boxDrawingCharacters.getLeftIntersect())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getMiddleIntersect())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getRightIntersect())
+                .append(vertical).append(' ').append(vertical).append(' ').append(vertical)
+                .append(boxDrawingCharacters.getBottomLeftCorner())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getBottomIntersect())
+                .append(horizontal)
+                .append(boxDrawingCharacters.getBottomRightCorner())
+                .toString();
+    }
+
+    @Setup
+    public void setUp() {
+        final BoxDrawingCharacters boxDrawingCharacters = getBoxDrawingCharacters(preset);
+        boxDrawing = toBoxDrawing(boxDrawingCharacters);
+        final Object[] headers = new Object[NUM_COLUMNS];
+        for (int column = 0; column < NUM_COLUMNS; column++) {
+            headers[column] = "header" + column;
+        }
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders(headers)
+                .setBoxDrawingCharacters(boxDrawingCharacters);
+        for (int row = 0; row < NUM_ROWS; row++) {
+            final Object[] items = new Object[NUM_COLUMNS];
+            for (int column = 0; column < NUM_COLUMNS; column++) {
+                items[column] = row % (column + 2) * 1000;
+            }
+            textTableBuilder.addRow(items);
+        }
+    }
+
+    @Benchmark
+    public BoxDrawingCharacters fromBoxDrawing() {
+        return BoxDrawingCharacters.fromBoxDrawing(boxDrawing);
+    }
+
+    @Benchmark
+    public String render() {
+        // bypass the render cache so that every invocation renders the table
+        return ToStringBuilder.getToStringFor(textTableBuilder);
+    }
+
+}
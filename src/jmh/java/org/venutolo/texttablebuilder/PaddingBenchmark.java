@@ -0,0 +1,73 @@
+package org.venutolo.texttablebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+
+/**
+ * Measures rendering of a 100,000 row by 10 column table, where padding cells dominates the cost.
+ * <p>
+ * {@link #formatPadding()} pads the same cells with {@link String#format(String, Object...)} the
+ * way cells used to be padded, as a baseline for the cost that {@link #render()} no longer pays.
+ *
+ * @author Rick Venutolo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PaddingBenchmark {
+
+    private static final int NUM_ROWS = 100000;
+
+    private static final int NUM_COLUMNS = 10;
+
+    private static final int COLUMN_WIDTH = 5;
+
+    private TextTableBuilder textTableBuilder;
+
+    private String[][] cells;
+
+    @Setup
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setColumnAlignments(LEFT, RIGHT, LEFT, RIGHT, LEFT, RIGHT, LEFT, RIGHT, LEFT, RIGHT);
+        cells = new String[NUM_ROWS][NUM_COLUMNS];
+        for (int row = 0; row < NUM_ROWS; row++) {
+            for (int column = 0; column < NUM_COLUMNS; column++) {
+                // vary lengths so that every cell needs some padding
+                cells[row][column] = Integer.toString(row % (column + 2) * 1000 + column);
+            }
+            textTableBuilder.addRow((Object[]) cells[row]);
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        // bypass the render cache so that every invocation renders the table
+        return ToStringBuilder.getToStringFor(textTableBuilder);
+    }
+
+    @Benchmark
+    public StringBuilder formatPadding() {
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (final String[] row : cells) {
+            for (int column = 0; column < row.length; column++) {
+                final String format = ((column % 2) == 0) ? "%1$-" : "%1$";
+                stringBuilder.append(
+                        String.format(format + (COLUMN_WIDTH + 2) + "s", " " + row[column] + " ")
+                );
+            }
+        }
+        return stringBuilder;
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.venutolo.texttablebuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering tables of 40,000 cells, from narrow and tall to wide and short, with and
+ * without row numbers and repeated headers.
+ *
+ * @author Rick Venutolo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark {
+
+    // rows x columns
+    @Param({"20000x2", "2000x20", "200x200", "20x2000"})
+    public String shape;
+
+    @Param({"false", "true"})
+    public boolean showRowNums;
+
+    @Param({"0", "10"})
+    public int repeatHeadersEveryXRows;
+
+    private TextTableBuilder textTableBuilder;
+
+    @Setup
+    public void setUp() {
+        final int separator = shape.indexOf('x');
+        final int numRows = Integer.parseInt(shape.substring(0, separator));
+        final int numColumns = Integer.parseInt(shape.substring(separator + 1));
+        final List<Object> headers = new ArrayList<Object>(numColumns);
+        for (int column = 0; column < numColumns; column++) {
+            headers.add("header" + column);
+        }
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders(headers)
+                .setShowRowNums(showRowNums)
+                .setRepeatHeadersEveryXRows(repeatHeadersEveryXRows);
+        for (int row = 0; row < numRows; row++) {
+            final Object[] items = new Object[numColumns];
+            for (int column = 0; column < numColumns; column++) {
+                // vary lengths so that every cell needs some padding
+                items[column] = ((row + column) % 5 == 0) ? null : row % (column + 2) * 1000;
+            }
+            textTableBuilder.addRow(items);
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        // bypass the render cache so that every invocation renders the table
+        return ToStringBuilder.getToStringFor(textTableBuilder);
+    }
+
+}
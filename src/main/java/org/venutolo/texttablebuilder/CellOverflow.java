@@ -0,0 +1,11 @@
+package org.venutolo.texttablebuilder;
+
+/**
+ * What a {@link TextTableWriter} does with an item that is wider than its column.
+ *
+ * @author Rick Venutolo
+ */
+public enum CellOverflow {
+    OVERFLOW,
+    TRUNCATE
+}
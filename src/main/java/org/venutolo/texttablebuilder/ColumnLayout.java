@@ -0,0 +1,180 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+
+/**
+ * The headers and alignments of each column of a rendered table, including the row number column
+ * if row numbers are shown, with each header converted to its string and measured.
+ * <p>
+ * Instances are immutable, so a {@link TableLayout} compiles one when it is created and every
+ * table it renders uses it, including tables rendered on other threads.
+ *
+ * @author Rick Venutolo
+ */
+final class ColumnLayout {
+
+    private final int numTableColumns;
+
+    // index of the first column that comes from the table, which is 1 if showing row numbers
+    private final int firstTableColumn;
+
+    // each header is its string, or the null column replacement for a null header
+    @Nonnull
+    private final List<Object> headers;
+
+    @Nonnull
+    private final int[] headerWidths;
+
+    @Nonnull
+    private final List<Alignment> headerAlignments;
+
+    @Nonnull
+    private final List<Alignment> columnAlignments;
+
+    private ColumnLayout(
+            final int numTableColumns,
+            final int firstTableColumn,
+            @Nonnull final List<Object> headers,
+            @Nonnull final int[] headerWidths,
+            @Nonnull final List<Alignment> headerAlignments,
+            @Nonnull final List<Alignment> columnAlignments
+    ) {
+        assert headers != null;
+        assert headerWidths != null;
+        assert headerAlignments != null;
+        assert columnAlignments != null;
+        this.numTableColumns = numTableColumns;
+        this.firstTableColumn = firstTableColumn;
+        this.headers = Collections.unmodifiableList(headers);
+        this.headerWidths = headerWidths;
+        this.headerAlignments = Collections.unmodifiableList(headerAlignments);
+        this.columnAlignments = Collections.unmodifiableList(columnAlignments);
+    }
+
+    @Nonnull
+    static ColumnLayout compile(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            final int numTableColumns
+    ) {
+        assert textTableBuilder != null;
+        final boolean showRowNums = textTableBuilder.getShowRowNums();
+        final int firstTableColumn = showRowNums ? 1 : 0;
+        final int numColumns = numTableColumns + firstTableColumn;
+        final List<Object> headers = textTableBuilder.getHeaders();
+        final List<Alignment> headerAlignments = textTableBuilder.getHeaderAlignments();
+        final List<Alignment> columnAlignments = textTableBuilder.getColumnAlignments();
+        // if alignments are empty, then populate with LEFT for defaults
+        ifEmptyPopulateWithLeft(headerAlignments, numTableColumns);
+        ifEmptyPopulateWithLeft(columnAlignments, numTableColumns);
+        // if showing row number, add header and alignments for row numbers
+        if (showRowNums) {
+            headerAlignments.add(0, RIGHT);
+            columnAlignments.add(0, RIGHT);
+            addRowNumHeader(headers, textTableBuilder.getRowNumHeader(), numColumns);
+        }
+        final int[] headerWidths = new int[numColumns];
+        if (!headers.isEmpty()) {
+            materializeAndMeasure(
+                    headers,
+                    textTableBuilder.getNullColumnReplacement(),
+                    headerWidths
+            );
+        }
+        return new ColumnLayout(
+                numTableColumns,
+                firstTableColumn,
+                headers,
+                headerWidths,
+                headerAlignments,
+                columnAlignments
+        );
+    }
+
+    private static void ifEmptyPopulateWithLeft(
+            @Nonnull final List<Alignment> alignments,
+            final int numColumns
+    ) {
+        assert alignments != null;
+        if (alignments.isEmpty()) {
+            for (int i = 0; i < numColumns; i++) {
+                alignments.add(LEFT);
+            }
+        }
+    }
+
+    private static void addRowNumHeader(
+            @Nonnull final List<Object> headers,
+            @Nonnull final String rowNumHeader,
+            final int numColumns
+    ) {
+        assert headers != null;
+        assert rowNumHeader != null;
+        final boolean headersWereEmpty = headers.isEmpty();
+        if (!headersWereEmpty || (rowNumHeader.length() != 0)) {
+            headers.add(0, rowNumHeader);
+            // if headers were empty, need to populate other headers with empty strings
+            if (headersWereEmpty) {
+                for (int i = 1; i < numColumns; i++) {
+                    headers.add("");
+                }
+            }
+        }
+    }
+
+    private static void materializeAndMeasure(
+            @Nonnull final List<Object> headers,
+            @Nonnull final String nullColumnReplacement,
+            @Nonnull final int[] headerWidths
+    ) {
+        assert headers != null;
+        assert nullColumnReplacement != null;
+        assert headerWidths != null;
+        assert headerWidths.length == headers.size();
+        for (int i = 0; i < headerWidths.length; i++) {
+            final Object header = headers.get(i);
+            final String headerString = (header == null)
+                                        ? nullColumnReplacement
+                                        : header.toString();
+            // headers is this instance's own copy, so keep the string for the header line
+            headers.set(i, headerString);
+            headerWidths[i] = headerString.length();
+        }
+    }
+
+    int getNumTableColumns() {
+        return numTableColumns;
+    }
+
+    int getFirstTableColumn() {
+        return firstTableColumn;
+    }
+
+    int getNumColumns() {
+        return numTableColumns + firstTableColumn;
+    }
+
+    @Nonnull
+    List<Object> getHeaders() {
+        return headers;
+    }
+
+    int getHeaderWidth(final int column) {
+        return headerWidths[column];
+    }
+
+    @Nonnull
+    List<Alignment> getHeaderAlignments() {
+        return headerAlignments;
+    }
+
+    @Nonnull
+    List<Alignment> getColumnAlignments() {
+        return columnAlignments;
+    }
+
+}
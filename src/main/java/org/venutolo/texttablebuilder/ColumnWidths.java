@@ -0,0 +1,114 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Running maximum widths of the items in each column of a table, updated as rows are added so
+ * that rendering does not need to measure every item.
+ * <p>
+ * Null items are tracked separately from the widths of other items, so that changing the null
+ * column replacement does not require measuring the items again.
+ *
+ * @author Rick Venutolo
+ */
+final class ColumnWidths {
+
+    @Nonnull
+    private final StringBuilder primitiveBuilder = new StringBuilder();
+
+    @Nonnull
+    private int[] itemWidths = new int[0];
+
+    @Nonnull
+    private boolean[] hasNull = new boolean[0];
+
+    private void ensureNumColumns(final int numColumns) {
+        if (itemWidths.length != numColumns) {
+            // first row determines the number of columns
+            itemWidths = new int[numColumns];
+            hasNull = new boolean[numColumns];
+        }
+    }
+
+    private void update(final int column, final int itemWidth) {
+        if (itemWidth > itemWidths[column]) {
+            itemWidths[column] = itemWidth;
+        }
+    }
+
+    private void updateItem(final int column, @Nullable final Object item) {
+        if (item == null) {
+            hasNull[column] = true;
+        } else {
+            update(column, item.toString().length());
+        }
+    }
+
+    void clear() {
+        Arrays.fill(itemWidths, 0);
+        Arrays.fill(hasNull, false);
+    }
+
+    void update(@Nonnull final Collection<?> row) {
+        assert row != null;
+        ensureNumColumns(row.size());
+        int column = 0;
+        for (final Object item : row) {
+            updateItem(column, item);
+            column++;
+        }
+    }
+
+    void update(@Nonnull final Object[] row) {
+        assert row != null;
+        ensureNumColumns(row.length);
+        for (int column = 0; column < row.length; column++) {
+            updateItem(column, row[column]);
+        }
+    }
+
+    void update(@Nonnull final long[] row) {
+        assert row != null;
+        ensureNumColumns(row.length);
+        for (int column = 0; column < row.length; column++) {
+            primitiveBuilder.setLength(0);
+            update(column, primitiveBuilder.append(row[column]).length());
+        }
+    }
+
+    void update(@Nonnull final double[] row) {
+        assert row != null;
+        ensureNumColumns(row.length);
+        for (int column = 0; column < row.length; column++) {
+            primitiveBuilder.setLength(0);
+            update(column, primitiveBuilder.append(row[column]).length());
+        }
+    }
+
+    void update(@Nonnull final ColumnWidths columnWidths) {
+        assert columnWidths != null;
+        if (columnWidths.itemWidths.length == 0) {
+            // no rows have been measured
+            return;
+        }
+        ensureNumColumns(columnWidths.itemWidths.length);
+        for (int column = 0; column < itemWidths.length; column++) {
+            update(column, columnWidths.itemWidths[column]);
+            hasNull[column] |= columnWidths.hasNull[column];
+        }
+    }
+
+    int getWidth(final int column, @Nonnull final String nullColumnReplacement) {
+        assert nullColumnReplacement != null;
+        if (column >= itemWidths.length) {
+            // no rows have been added
+            return 0;
+        }
+        final int itemWidth = itemWidths[column];
+        return hasNull[column] ? Math.max(itemWidth, nullColumnReplacement.length()) : itemWidth;
+    }
+
+}
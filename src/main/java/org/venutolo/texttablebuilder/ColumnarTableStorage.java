@@ -0,0 +1,293 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * {@link TableStorage} that stores each column as its own growable array, so each item only costs
+ * one reference instead of a list per row.
+ * <p>
+ * The type of each column is decided by the first row added: rows added with {@link
+ * #addLongRow(long[])} or {@link #addDoubleRow(double[])} create {@code long[]} or {@code
+ * double[]} backed columns, which store items without boxing. A typed column that is later given
+ * an item of another type is converted to an object column, boxing the items it already holds.
+ *
+ * @author Rick Venutolo
+ */
+final class ColumnarTableStorage extends TableStorage {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Nonnull
+    private Column[] columns = new Column[0];
+
+    private int numRows;
+
+    private int capacity;
+
+    private static int grownCapacity(final int capacity, final int minCapacity) {
+        return Math.max(Math.max(minCapacity, INITIAL_CAPACITY), capacity + (capacity >> 1));
+    }
+
+    @Override
+    void ensureCapacity(final int minNumRows) {
+        if (minNumRows > capacity) {
+            final int newCapacity = grownCapacity(capacity, minNumRows);
+            for (final Column column : columns) {
+                column.setCapacity(newCapacity);
+            }
+            capacity = newCapacity;
+        }
+    }
+
+    private boolean isFirstRow(final int numColumns) {
+        if (numRows == 0) {
+            return true;
+        }
+        assert columns.length == numColumns;
+        return false;
+    }
+
+    @Nonnull
+    private ObjectColumn getObjectColumn(final int column) {
+        final Column existingColumn = columns[column];
+        if (existingColumn instanceof ObjectColumn) {
+            return (ObjectColumn) existingColumn;
+        }
+        final ObjectColumn objectColumn = new ObjectColumn(capacity);
+        for (int row = 0; row < numRows; row++) {
+            objectColumn.items[row] = existingColumn.get(row);
+        }
+        columns[column] = objectColumn;
+        return objectColumn;
+    }
+
+    @Override
+    int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    Object get(final int row, final int column) {
+        assert (row >= 0) && (row < numRows);
+        return columns[column].get(row);
+    }
+
+    @Override
+    void addRow(@Nonnull final Collection<?> row) {
+        assert row != null;
+        if (isFirstRow(row.size())) {
+            columns = new Column[row.size()];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = new ObjectColumn(capacity);
+            }
+        }
+        ensureCapacity(numRows + 1);
+        int column = 0;
+        for (final Object item : row) {
+            getObjectColumn(column).items[numRows] = item;
+            column++;
+        }
+        numRows++;
+    }
+
+    @Override
+    void addLongRow(@Nonnull final long[] row) {
+        assert row != null;
+        if (isFirstRow(row.length)) {
+            columns = new Column[row.length];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = new LongColumn(capacity);
+            }
+        }
+        ensureCapacity(numRows + 1);
+        for (int column = 0; column < row.length; column++) {
+            final Column existingColumn = columns[column];
+            if (existingColumn instanceof LongColumn) {
+                ((LongColumn) existingColumn).items[numRows] = row[column];
+            } else {
+                getObjectColumn(column).items[numRows] = row[column];
+            }
+        }
+        numRows++;
+    }
+
+    @Override
+    void addDoubleRow(@Nonnull final double[] row) {
+        assert row != null;
+        if (isFirstRow(row.length)) {
+            columns = new Column[row.length];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = new DoubleColumn(capacity);
+            }
+        }
+        ensureCapacity(numRows + 1);
+        for (int column = 0; column < row.length; column++) {
+            final Column existingColumn = columns[column];
+            if (existingColumn instanceof DoubleColumn) {
+                ((DoubleColumn) existingColumn).items[numRows] = row[column];
+            } else {
+                getObjectColumn(column).items[numRows] = row[column];
+            }
+        }
+        numRows++;
+    }
+
+    @Override
+    int getNumColumns(final int row) {
+        return columns.length;
+    }
+
+    @Nonnull
+    ColumnarTableStorage copy() {
+        // columns keep their types, so primitive items are not boxed by copying
+        final ColumnarTableStorage copy = new ColumnarTableStorage();
+        copy.columns = new Column[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            copy.columns[column] = columns[column].copy(numRows);
+        }
+        copy.numRows = numRows;
+        copy.capacity = numRows;
+        return copy;
+    }
+
+    @Override
+    boolean appendIfPrimitive(
+            final int row,
+            final int column,
+            @Nonnull final StringBuilder stringBuilder
+    ) {
+        assert (row >= 0) && (row < numRows);
+        assert stringBuilder != null;
+        final Column existingColumn = columns[column];
+        if (existingColumn instanceof PrimitiveColumn) {
+            ((PrimitiveColumn) existingColumn).appendItem(row, stringBuilder);
+            return true;
+        }
+        return false;
+    }
+
+    private abstract static class Column {
+
+        abstract Object get(int row);
+
+        abstract void setCapacity(int capacity);
+
+        @Nonnull
+        abstract Column copy(int capacity);
+
+    }
+
+    private abstract static class PrimitiveColumn extends Column {
+
+        abstract void appendItem(int row, @Nonnull StringBuilder stringBuilder);
+
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        @Nonnull
+        private Object[] items;
+
+        private ObjectColumn(final int capacity) {
+            items = new Object[capacity];
+        }
+
+        private ObjectColumn(@Nonnull final Object[] items) {
+            this.items = items;
+        }
+
+        @Override
+        Object get(final int row) {
+            return items[row];
+        }
+
+        @Override
+        void setCapacity(final int capacity) {
+            items = Arrays.copyOf(items, capacity);
+        }
+
+        @Nonnull
+        @Override
+        Column copy(final int capacity) {
+            return new ObjectColumn(Arrays.copyOf(items, capacity));
+        }
+
+    }
+
+    private static final class LongColumn extends PrimitiveColumn {
+
+        @Nonnull
+        private long[] items;
+
+        private LongColumn(final int capacity) {
+            items = new long[capacity];
+        }
+
+        private LongColumn(@Nonnull final long[] items) {
+            this.items = items;
+        }
+
+        @Override
+        Object get(final int row) {
+            return items[row];
+        }
+
+        @Override
+        void setCapacity(final int capacity) {
+            items = Arrays.copyOf(items, capacity);
+        }
+
+        @Nonnull
+        @Override
+        Column copy(final int capacity) {
+            return new LongColumn(Arrays.copyOf(items, capacity));
+        }
+
+        @Override
+        void appendItem(final int row, @Nonnull final StringBuilder stringBuilder) {
+            // same text as Long.toString(long), without creating a String
+            stringBuilder.append(items[row]);
+        }
+
+    }
+
+    private static final class DoubleColumn extends PrimitiveColumn {
+
+        @Nonnull
+        private double[] items;
+
+        private DoubleColumn(final int capacity) {
+            items = new double[capacity];
+        }
+
+        private DoubleColumn(@Nonnull final double[] items) {
+            this.items = items;
+        }
+
+        @Override
+        Object get(final int row) {
+            return items[row];
+        }
+
+        @Override
+        void setCapacity(final int capacity) {
+            items = Arrays.copyOf(items, capacity);
+        }
+
+        @Nonnull
+        @Override
+        Column copy(final int capacity) {
+            return new DoubleColumn(Arrays.copyOf(items, capacity));
+        }
+
+        @Override
+        void appendItem(final int row, @Nonnull final StringBuilder stringBuilder) {
+            // same text as Double.toString(double), without creating a String
+            stringBuilder.append(items[row]);
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.venutolo.texttablebuilder.RowOrder.INSERTION;
+import static org.venutolo.texttablebuilder.Rows.checkRowSize;
+import static org.venutolo.texttablebuilder.Rows.objectArrayToCollection;
+
+/**
+ * Collects the rows of a table from any number of threads at once, created with {@link
+ * TextTableBuilder#newConcurrentBuilder(RowOrder)}.
+ * <p>
+ * Each thread adds its rows to its own stripe, so threads adding rows do not contend with each
+ * other. Items are measured by the thread that adds them, and the widths measured by each stripe
+ * are merged when a snapshot is built. {@link #build()} returns a {@link TextTable} with every row
+ * that was added before it was called and none added after, in the {@link RowOrder} given when
+ * this instance was created.
+ *
+ * @author Rick Venutolo
+ * @see TextTableBuilder#newConcurrentBuilder(RowOrder)
+ */
+public final class ConcurrentTextTableBuilder {
+
+    private static final int NO_COLUMNS_YET = -1;
+
+    @Nonnull
+    private final TextTableBuilder options;
+
+    @Nonnull
+    private final RowOrder rowOrder;
+
+    @Nonnull
+    private final AtomicInteger numColumns;
+
+    // next sequence number, which is also the number of rows added
+    @Nonnull
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    // in the order threads added their first rows
+    @Nonnull
+    private final List<Stripe> stripes = new CopyOnWriteArrayList<Stripe>();
+
+    // kept here rather than in a ThreadLocal, so that a discarded instance's rows are not kept
+    // alive by the threads that added them, such as those of a long-lived pool
+    @Nonnull
+    private final ConcurrentMap<Thread, Stripe> threadStripes =
+            new ConcurrentHashMap<Thread, Stripe>();
+
+    ConcurrentTextTableBuilder(
+            @Nonnull final TextTableBuilder options,
+            @Nonnull final RowOrder rowOrder
+    ) {
+        assert options != null;
+        assert rowOrder != null;
+        this.options = options;
+        this.rowOrder = rowOrder;
+        numColumns = new AtomicInteger(
+                (options.getNumColumns() == 0) ? NO_COLUMNS_YET : options.getNumColumns()
+        );
+    }
+
+    /*========================================================================
+     * INSTANCE UTILITY METHODS
+     *========================================================================*/
+
+    private void checkNumColumns(final int size) {
+        // without headers, the first row sets the number of columns
+        if (!numColumns.compareAndSet(NO_COLUMNS_YET, size)) {
+            checkRowSize(size, numColumns.get());
+        }
+    }
+
+    @Nonnull
+    private Stripe getThreadStripe() {
+        final Thread thread = Thread.currentThread();
+        Stripe stripe = threadStripes.get(thread);
+        if (stripe == null) {
+            // only this thread adds its own stripe, so there is no race to add it
+            stripe = new Stripe();
+            stripes.add(stripe);
+            threadStripes.put(thread, stripe);
+        }
+        return stripe;
+    }
+
+    /*========================================================================
+     * ROW METHODS
+     *========================================================================*/
+
+    @Nonnull
+    public RowOrder getRowOrder() {
+        return rowOrder;
+    }
+
+    /**
+     * Adds a row. This can be called by any number of threads at once.
+     *
+     * @param row the items of the row
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public ConcurrentTextTableBuilder addRow(@Nonnull final Collection<?> row) {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        final Stripe stripe = getThreadStripe();
+        final List<Object> rowCopy = new ArrayList<Object>(row);
+        // measured before the number of columns is set and the row is stored, so a row with an
+        // item that cannot be measured leaves nothing behind
+        stripe.measureRow(rowCopy);
+        checkNumColumns(rowCopy.size());
+        stripe.addRow(rowCopy, sequence);
+        return this;
+    }
+
+    @Nonnull
+    public ConcurrentTextTableBuilder addRow(@Nonnull final Object... row) {
+        return addRow(objectArrayToCollection(row));
+    }
+
+    public int getNumRows() {
+        return sequence.get();
+    }
+
+    public int getNumColumns() {
+        return Math.max(numColumns.get(), 0);
+    }
+
+    /*========================================================================
+     * SNAPSHOT METHODS
+     *========================================================================*/
+
+    /**
+     * Returns an immutable snapshot of the rows added so far, with the options of the {@link
+     * TextTableBuilder} that created this instance. The snapshot has every row whose {@code
+     * addRow} call completed before this was called, possibly along with rows whose call was in
+     * progress, and no others, so rows can keep being added while it is built.
+     *
+     * @return an immutable snapshot of the table
+     */
+    @Nonnull
+    public TextTable build() {
+        // every row numbered below this was added while its stripe was locked, so locking each
+        // stripe in turn sees all of them
+        final int numRows = sequence.get();
+        final List<List<Object>> rows = (rowOrder == INSERTION)
+                                        ? new ArrayList<List<Object>>(
+                                                Collections.<List<Object>>nCopies(numRows, null))
+                                        : new ArrayList<List<Object>>(numRows);
+        final ColumnWidths columnWidths = new ColumnWidths();
+        for (final Stripe stripe : stripes) {
+            stripe.copyRowsTo(numRows, rowOrder, rows, columnWidths);
+        }
+        final int snapshotNumColumns = numColumns.get();
+        return options.build(
+                (snapshotNumColumns == NO_COLUMNS_YET) ? null : snapshotNumColumns,
+                rows,
+                columnWidths
+        );
+    }
+
+    /**
+     * Returns the rendered table, the same as rendering {@link #build()}.
+     *
+     * @return the rendered table
+     */
+    @Override
+    public String toString() {
+        return build().toString();
+    }
+
+    /**
+     * Rows added by one thread, with the sequence number of each row. Only the owning thread adds
+     * rows, so its lock is only contended while a snapshot is being built.
+     */
+    private static final class Stripe {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        @Nonnull
+        private final List<List<Object>> rows = new ArrayList<List<Object>>();
+
+        @Nonnull
+        private int[] sequenceNumbers = new int[INITIAL_CAPACITY];
+
+        @Nonnull
+        private final ColumnWidths columnWidths = new ColumnWidths();
+
+        // widths of the row being added; only used by the owning thread, so it is not locked
+        @Nonnull
+        private final ColumnWidths rowColumnWidths = new ColumnWidths();
+
+        private void measureRow(@Nonnull final List<Object> row) {
+            assert row != null;
+            rowColumnWidths.clear();
+            rowColumnWidths.update(row);
+        }
+
+        private synchronized void addRow(
+                @Nonnull final List<Object> row,
+                @Nonnull final AtomicInteger sequence
+        ) {
+            assert row != null;
+            assert sequence != null;
+            final int numRows = rows.size();
+            if (numRows == sequenceNumbers.length) {
+                sequenceNumbers = Arrays.copyOf(sequenceNumbers, numRows * 2);
+            }
+            // numbered while locked, so a snapshot that sees a number also sees its row
+            sequenceNumbers[numRows] = sequence.getAndIncrement();
+            rows.add(row);
+            columnWidths.update(rowColumnWidths);
+        }
+
+        private void copyRowsTo(
+                final int numSnapshotRows,
+                @Nonnull final RowOrder rowOrder,
+                @Nonnull final List<List<Object>> snapshotRows,
+                @Nonnull final ColumnWidths snapshotColumnWidths
+        ) {
+            assert rowOrder != null;
+            assert snapshotRows != null;
+            assert snapshotColumnWidths != null;
+            final List<List<Object>> stripeSnapshotRows;
+            final int[] stripeSequenceNumbers;
+            final boolean hasNewerRows;
+            // only references are copied while locked, so the owning thread is not blocked while
+            // rows are measured
+            synchronized (this) {
+                // sequence numbers only grow, so the rows in the snapshot come first
+                int numRows = rows.size();
+                while ((numRows > 0) && (sequenceNumbers[numRows - 1] >= numSnapshotRows)) {
+                    numRows--;
+                }
+                stripeSnapshotRows = new ArrayList<List<Object>>(rows.subList(0, numRows));
+                // numbers below numRows are never written again, even if the array is replaced
+                stripeSequenceNumbers = sequenceNumbers;
+                hasNewerRows = numRows != rows.size();
+                if (!hasNewerRows) {
+                    snapshotColumnWidths.update(columnWidths);
+                }
+            }
+            for (int row = 0; row < stripeSnapshotRows.size(); row++) {
+                if (rowOrder == INSERTION) {
+                    snapshotRows.set(stripeSequenceNumbers[row], stripeSnapshotRows.get(row));
+                } else {
+                    snapshotRows.add(stripeSnapshotRows.get(row));
+                }
+            }
+            if (hasNewerRows) {
+                // rows added after the snapshot was started were measured too, so measure the
+                // rows in the snapshot again
+                for (final List<Object> row : stripeSnapshotRows) {
+                    snapshotColumnWidths.update(row);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+/**
+ * {@link TableStorage} that only holds the row being rendered, for rendering rows read from a
+ * {@link TableSource}. Adding a row replaces the current row, and only the current row can be
+ * read.
+ *
+ * @author Rick Venutolo
+ */
+final class CurrentRowTableStorage extends TableStorage {
+
+    @Nonnull
+    private final Object[] items;
+
+    private int numRows;
+
+    CurrentRowTableStorage(final int numColumns) {
+        items = new Object[numColumns];
+    }
+
+    @Override
+    int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    Object get(final int row, final int column) {
+        assert row == (numRows - 1);
+        return items[column];
+    }
+
+    @Override
+    void addRow(@Nonnull final Collection<?> row) {
+        assert row != null;
+        assert row.size() == items.length;
+        int column = 0;
+        for (final Object item : row) {
+            items[column] = item;
+            column++;
+        }
+        numRows++;
+    }
+
+    @Override
+    int getNumColumns(final int row) {
+        return items.length;
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Lines of a table that have already been rendered, kept so that rendering the table again after
+ * rows have only been appended renders just the new rows.
+ * <p>
+ * The body holds every line up to and including the last rendered row, along with any headers
+ * repeated after it, but not the bottom headers or bottom line. The body is only valid while the
+ * column widths it was rendered with are unchanged.
+ *
+ * @author Rick Venutolo
+ */
+final class IncrementalRender {
+
+    @Nonnull
+    private final StringBuilder body = new StringBuilder();
+
+    private int numRows;
+
+    @Nullable
+    private int[] columnWidths;
+
+    private boolean justPrintedHeader;
+
+    @Nonnull
+    StringBuilder getBody() {
+        return body;
+    }
+
+    int getNumRows() {
+        return numRows;
+    }
+
+    @Nullable
+    int[] getColumnWidths() {
+        return columnWidths;
+    }
+
+    boolean getJustPrintedHeader() {
+        return justPrintedHeader;
+    }
+
+    void update(
+            final int numRows,
+            @Nonnull final int[] columnWidths,
+            final boolean justPrintedHeader
+    ) {
+        assert columnWidths != null;
+        this.numRows = numRows;
+        this.columnWidths = columnWidths;
+        this.justPrintedHeader = justPrintedHeader;
+    }
+
+}
@@ -0,0 +1,18 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * Destination for each line of a rendered table as soon as it has been built.
+ *
+ * @author Rick Venutolo
+ */
+interface LineWriter {
+
+    void writeLine(@Nonnull StringBuilder line) throws IOException;
+
+    // for lines built once, such as the border lines, which are written without being copied
+    void writeLine(@Nonnull char[] line, int offset, int length) throws IOException;
+
+}
@@ -0,0 +1,23 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the {@link RenderStats} of each render of a {@link TextTableBuilder}, registered with
+ * {@link TextTableBuilder#setRenderListener(RenderListener)}. It is called on the rendering thread
+ * after the table has been rendered, including when the cached rendered table is reused, so it
+ * should return quickly.
+ *
+ * @author Rick Venutolo
+ * @see TextTableBuilder#setRenderListener(RenderListener)
+ */
+public interface RenderListener {
+
+    /**
+     * Called after a table has been rendered.
+     *
+     * @param renderStats the measurements of the render
+     */
+    void rendered(@Nonnull RenderStats renderStats);
+
+}
@@ -0,0 +1,140 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.venutolo.texttablebuilder.RenderStats.UNKNOWN;
+
+/**
+ * Times one render for a {@link RenderListener}. Only created when a listener is registered, so
+ * renders without one do not read the clock or the allocation counter.
+ *
+ * @author Rick Venutolo
+ */
+final class RenderMetrics {
+
+    @Nonnull
+    private final RenderListener renderListener;
+
+    private final long startNanos;
+
+    private final long startAllocatedBytes;
+
+    private long measuredNanos;
+
+    RenderMetrics(@Nonnull final RenderListener renderListener) {
+        assert renderListener != null;
+        this.renderListener = renderListener;
+        startAllocatedBytes = AllocatedBytes.get();
+        startNanos = System.nanoTime();
+    }
+
+    static void cacheHit(
+            @Nonnull final RenderListener renderListener,
+            final int numRows,
+            final long numItems,
+            final long numChars,
+            final long numBytes
+    ) {
+        assert renderListener != null;
+        renderListener.rendered(
+                new RenderStats(true, 0, 0, numRows, numItems, numChars, numBytes, UNKNOWN)
+        );
+    }
+
+    void measured() {
+        measuredNanos = System.nanoTime();
+    }
+
+    void emitted(final int numRows, final long numItems, final long numChars, final long numBytes) {
+        final long emittedNanos = System.nanoTime();
+        final long endAllocatedBytes = AllocatedBytes.get();
+        renderListener.rendered(new RenderStats(
+                false,
+                measuredNanos - startNanos,
+                emittedNanos - measuredNanos,
+                numRows,
+                numItems,
+                numChars,
+                numBytes,
+                ((startAllocatedBytes == UNKNOWN) || (endAllocatedBytes == UNKNOWN))
+                ? UNKNOWN
+                : (endAllocatedBytes - startAllocatedBytes)
+        ));
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread through {@code
+     * com.sun.management.ThreadMXBean}, which is not part of the Java SE API, so it is looked up
+     * reflectively the first time a listener is used.
+     */
+    private static final class AllocatedBytes {
+
+        @Nullable
+        private static final ThreadMXBean THREAD_MX_BEAN;
+
+        @Nullable
+        private static final Method GET_THREAD_ALLOCATED_BYTES;
+
+        static {
+            final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            final Method getThreadAllocatedBytes = findGetThreadAllocatedBytes(threadMXBean);
+            THREAD_MX_BEAN = (getThreadAllocatedBytes == null) ? null : threadMXBean;
+            GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytes;
+        }
+
+        private AllocatedBytes() {
+        }
+
+        @Nullable
+        private static Method findGetThreadAllocatedBytes(
+                @Nonnull final ThreadMXBean threadMXBean
+        ) {
+            assert threadMXBean != null;
+            // allocation is reported as unknown whenever the method cannot be found or used
+            try {
+                final Class<?> sunThreadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+                if (sunThreadMXBean.isInstance(threadMXBean)
+                    && (Boolean) sunThreadMXBean.getMethod("isThreadAllocatedMemorySupported")
+                                                .invoke(threadMXBean)
+                    && (Boolean) sunThreadMXBean.getMethod("isThreadAllocatedMemoryEnabled")
+                                                .invoke(threadMXBean)) {
+                    return sunThreadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+                }
+                return null;
+            } catch (final ClassNotFoundException e) {
+                return null;
+            } catch (final NoSuchMethodException e) {
+                return null;
+            } catch (final IllegalAccessException e) {
+                return null;
+            } catch (final InvocationTargetException e) {
+                return null;
+            } catch (final SecurityException e) {
+                return null;
+            }
+        }
+
+        private static long get() {
+            if ((THREAD_MX_BEAN == null) || (GET_THREAD_ALLOCATED_BYTES == null)) {
+                return UNKNOWN;
+            }
+            try {
+                return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(
+                        THREAD_MX_BEAN,
+                        Thread.currentThread().getId()
+                );
+            } catch (final IllegalAccessException e) {
+                return UNKNOWN;
+            } catch (final InvocationTargetException e) {
+                return UNKNOWN;
+            }
+        }
+
+    }
+
+}
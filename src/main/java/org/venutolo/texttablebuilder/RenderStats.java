@@ -0,0 +1,131 @@
+package org.venutolo.texttablebuilder;
+
+/**
+ * Measurements of one render of a {@link TextTableBuilder}, given to its {@link RenderListener}.
+ * <p>
+ * The measure phase works out the widths of the columns and builds the lines that do not depend
+ * on the rows, and the emit phase renders the rows and writes every line. Both are {@code 0} when
+ * the cached rendered table was reused.
+ *
+ * @author Rick Venutolo
+ * @see RenderListener
+ */
+public final class RenderStats {
+
+    /**
+     * Returned by {@link #getNumBytes()} and {@link #getAllocatedBytes()} when they are unknown.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final boolean cacheHit;
+
+    private final long measureNanos;
+
+    private final long emitNanos;
+
+    private final int numRows;
+
+    private final long numItems;
+
+    private final long numChars;
+
+    private final long numBytes;
+
+    private final long allocatedBytes;
+
+    RenderStats(
+            final boolean cacheHit,
+            final long measureNanos,
+            final long emitNanos,
+            final int numRows,
+            final long numItems,
+            final long numChars,
+            final long numBytes,
+            final long allocatedBytes
+    ) {
+        this.cacheHit = cacheHit;
+        this.measureNanos = measureNanos;
+        this.emitNanos = emitNanos;
+        this.numRows = numRows;
+        this.numItems = numItems;
+        this.numChars = numChars;
+        this.numBytes = numBytes;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Returns whether the cached rendered table was reused instead of rendering the table.
+     *
+     * @return {@code true} if the render cache was hit
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    public long getMeasureNanos() {
+        return measureNanos;
+    }
+
+    public long getEmitNanos() {
+        return emitNanos;
+    }
+
+    /**
+     * Returns the number of rows rendered, which is fewer than the rows of the table when
+     * rendering a page, or appended rows incrementally.
+     *
+     * @return the number of rows rendered
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Returns the number of items rendered, not counting row numbers or headers.
+     *
+     * @return the number of items rendered
+     */
+    public long getNumItems() {
+        return numItems;
+    }
+
+    public long getNumChars() {
+        return numChars;
+    }
+
+    /**
+     * Returns the number of bytes the table was encoded as, which is only known when it was
+     * written as UTF-8.
+     *
+     * @return the number of bytes written, or {@link #UNKNOWN}
+     */
+    public long getNumBytes() {
+        return numBytes;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the rendering thread while rendering, which is
+     * only known on JVMs whose {@link java.lang.management.ThreadMXBean} measures allocation.
+     * Blocks of rows rendered on an {@link java.util.concurrent.ExecutorService} are not counted.
+     *
+     * @return the number of bytes allocated, or {@link #UNKNOWN}
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats ["
+               + "cacheHit=" + cacheHit
+               + ", measureNanos=" + measureNanos
+               + ", emitNanos=" + emitNanos
+               + ", numRows=" + numRows
+               + ", numItems=" + numItems
+               + ", numChars=" + numChars
+               + ", numBytes=" + numBytes
+               + ", allocatedBytes=" + allocatedBytes
+               + "]";
+    }
+
+}
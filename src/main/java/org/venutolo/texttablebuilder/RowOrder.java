@@ -0,0 +1,14 @@
+package org.venutolo.texttablebuilder;
+
+/**
+ * Order of the rows added to a {@link ConcurrentTextTableBuilder} by different threads. With
+ * {@link #INSERTION}, rows are in the order they were added. With {@link #THREAD}, the rows added
+ * by each thread are kept together, in the order the threads added their first rows. Rows added
+ * by the same thread are always in the order that thread added them.
+ *
+ * @author Rick Venutolo
+ */
+public enum RowOrder {
+    INSERTION,
+    THREAD
+}
@@ -0,0 +1,67 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link TableStorage} that stores each row as its own list.
+ *
+ * @author Rick Venutolo
+ */
+final class RowTableStorage extends TableStorage {
+
+    @Nonnull
+    private final ArrayList<List<Object>> table = new ArrayList<List<Object>>();
+
+    @Override
+    int getNumRows() {
+        return table.size();
+    }
+
+    @Override
+    Object get(final int row, final int column) {
+        return table.get(row).get(column);
+    }
+
+    @Override
+    void addRow(@Nonnull final Collection<?> row) {
+        assert row != null;
+        table.add(new ArrayList<Object>(row));
+    }
+
+    @Override
+    void adoptRow(@Nonnull final Object[] row) {
+        assert row != null;
+        // the row is only ever read, so a fixed-size view of the array will do
+        table.add(Arrays.asList(row));
+    }
+
+    @Override
+    void ensureCapacity(final int minNumRows) {
+        table.ensureCapacity(minNumRows);
+    }
+
+    @Override
+    int getNumColumns(final int row) {
+        return table.get(row).size();
+    }
+
+    @Nonnull
+    RowTableStorage copy() {
+        final RowTableStorage copy = new RowTableStorage();
+        for (final List<Object> row : table) {
+            copy.table.add(new ArrayList<Object>(row));
+        }
+        return copy;
+    }
+
+    @Nonnull
+    @Override
+    List<Object> getRow(final int row) {
+        return new ArrayList<Object>(table.get(row));
+    }
+
+}
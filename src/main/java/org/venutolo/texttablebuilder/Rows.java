@@ -0,0 +1,42 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Conversions and checks of rows shared by everything that is given rows: the builders, the
+ * writer and the renderers.
+ *
+ * @author Rick Venutolo
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    @Nullable
+    static Collection<Object> objectArrayToCollection(@Nullable final Object... array) {
+        // want to retain null for later null-checking
+        return (array == null) ? null : Arrays.asList(array);
+    }
+
+    static void checkRowSize(final int size, final int expectedNumColumns) {
+        if (size != expectedNumColumns) {
+            throw new IllegalArgumentException(
+                    "Wrong number of columns: " + size
+                    + "; expected " + expectedNumColumns + " columns"
+            );
+        }
+    }
+
+    static void checkRowRange(final int fromRow, final int toRow, final int numRows) {
+        if ((fromRow < 0) || (fromRow > toRow) || (toRow > numRows)) {
+            throw new IllegalArgumentException(
+                    "Invalid row range: [" + fromRow + ", " + toRow + "); table has "
+                    + numRows + " rows"
+            );
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Renders any number of tables that share the headers, alignments and other options of the {@link
+ * TextTableBuilder} that created this instance, created with {@link
+ * TextTableBuilder#compileLayout()}. Any number of threads can render with an instance at once
+ * without synchronization.
+ * <p>
+ * The headers and alignments are compiled once, when this instance is created. Rows given to
+ * this instance are neither copied nor kept. Each table is measured and then rendered, and the
+ * border and header lines are reused from the last table if it had the same column widths.
+ *
+ * @author Rick Venutolo
+ * @see TextTableBuilder#compileLayout()
+ */
+public final class TableLayout {
+
+    @Nonnull
+    private final TextTableBuilder options;
+
+    // compiled once for the number of columns set by the options
+    @Nonnull
+    private final ColumnLayout columnLayout;
+
+    // lines of the last table rendered; a table only reuses them if it has the same column
+    // widths, so it does not matter which of several tables rendered at once stores its lines
+    @Nullable
+    private volatile TableLines tableLines;
+
+    TableLayout(@Nonnull final TextTableBuilder options) {
+        assert options != null;
+        this.options = options;
+        columnLayout = ColumnLayout.compile(options, options.getNumColumns());
+    }
+
+    /*========================================================================
+     * LAYOUT METHODS
+     *========================================================================*/
+
+    @Nonnull
+    TextTableBuilder getOptions() {
+        return options;
+    }
+
+    @Nonnull
+    ColumnLayout getColumnLayout(final int numTableColumns) {
+        if (numTableColumns == columnLayout.getNumTableColumns()) {
+            return columnLayout;
+        }
+        // only options without headers or alignments allow other numbers of columns, whose
+        // columns are all left aligned and whose only header is the row number header
+        return ColumnLayout.compile(options, numTableColumns);
+    }
+
+    @Nullable
+    TableLines getTableLines() {
+        return tableLines;
+    }
+
+    void setTableLines(@Nonnull final TableLines tableLines) {
+        assert tableLines != null;
+        this.tableLines = tableLines;
+    }
+
+    /**
+     * Returns the number of columns set by the headers or alignments of the {@link
+     * TextTableBuilder} this layout was compiled from, which every table must have. It is {@code
+     * 0} if that builder had neither, in which case the first row of each table sets its number of
+     * columns.
+     *
+     * @return the number of columns
+     */
+    public int getNumColumns() {
+        return options.getNumColumns();
+    }
+
+    /*========================================================================
+     * TOSTRING / RENDER
+     *========================================================================*/
+
+    /**
+     * Returns the given rows rendered as a table, the same as {@link TextTableBuilder#toString()}
+     * for a builder with this layout's options and the given rows.
+     *
+     * @param rows the rows of the table
+     *
+     * @return the rendered table
+     */
+    @Nonnull
+    public String toString(@Nonnull final Collection<? extends Collection<?>> rows) {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows cannot be null");
+        }
+        final StringBuilder stringBuilder = new StringBuilder();
+        try {
+            ToStringBuilder.render(this, rows, stringBuilder);
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Renders the given rows as a table to the given {@link Appendable}, producing the same text
+     * as {@link #toString(Collection)}. Every row is checked before anything is appended.
+     *
+     * @param rows the rows of the table
+     * @param appendable the destination for the rendered table
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final Collection<? extends Collection<?>> rows,
+            @Nonnull final A appendable
+    ) throws IOException {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows cannot be null");
+        }
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        ToStringBuilder.render(this, rows, appendable);
+        return appendable;
+    }
+
+}
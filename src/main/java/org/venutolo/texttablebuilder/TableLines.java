@@ -0,0 +1,80 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * The lines of a rendered table that do not depend on its rows: the top, interior and bottom lines
+ * and the header line. Each is built once, starting with the line separator and including the
+ * line prepender and appender, so that every use of a line writes its chars as they are.
+ * <p>
+ * Instances are immutable, so they are kept for later renders with the same options and column
+ * widths, including renders on other threads.
+ *
+ * @author Rick Venutolo
+ */
+final class TableLines {
+
+    @Nonnull
+    private final int[] columnWidths;
+
+    @Nonnull
+    private final char[] topLine;
+
+    @Nonnull
+    private final char[] interiorLine;
+
+    @Nonnull
+    private final char[] bottomLine;
+
+    // null if there are no headers
+    @Nullable
+    private final char[] headerLine;
+
+    TableLines(
+            @Nonnull final int[] columnWidths,
+            @Nonnull final char[] topLine,
+            @Nonnull final char[] interiorLine,
+            @Nonnull final char[] bottomLine,
+            @Nullable final char[] headerLine
+    ) {
+        assert columnWidths != null;
+        assert topLine != null;
+        assert interiorLine != null;
+        assert bottomLine != null;
+        this.columnWidths = columnWidths.clone();
+        this.topLine = topLine;
+        this.interiorLine = interiorLine;
+        this.bottomLine = bottomLine;
+        this.headerLine = headerLine;
+    }
+
+    boolean hasColumnWidths(@Nonnull final int[] columnWidths) {
+        assert columnWidths != null;
+        return Arrays.equals(this.columnWidths, columnWidths);
+    }
+
+    // lines are returned without copying; they must not be modified
+
+    @Nonnull
+    char[] getTopLine() {
+        return topLine;
+    }
+
+    @Nonnull
+    char[] getInteriorLine() {
+        return interiorLine;
+    }
+
+    @Nonnull
+    char[] getBottomLine() {
+        return bottomLine;
+    }
+
+    @Nullable
+    char[] getHeaderLine() {
+        return headerLine;
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Rows of a table that are read while the table is rendered, instead of being added to a {@link
+ * TextTableBuilder}, so that rows from a file, a database cursor or a generator never need to be
+ * held in memory all at once. See {@link TextTableBuilder#render(TableSource, Appendable)}.
+ *
+ * @author Rick Venutolo
+ */
+public interface TableSource {
+
+    /**
+     * Returns a new iterator over the rows, starting from the first row. Rendering a table reads
+     * the rows twice, once to measure the widths of the columns and once to render the rows, so
+     * each call must return the same rows. Rendering with known column widths reads the rows only
+     * once. If the returned iterator implements {@link java.io.Closeable}, it is closed once the
+     * rows have been read, or when reading them fails.
+     *
+     * @return an iterator over the rows
+     */
+    @Nonnull
+    Iterator<? extends Collection<?>> openRows();
+
+}
@@ -0,0 +1,176 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage for the rows of a {@link TextTableBuilder}.
+ * <p>
+ * Rows given to {@link #addRow(Collection)}, {@link #addLongRow(long[])} and {@link
+ * #addDoubleRow(double[])} have already been checked for null and for having the correct number of
+ * columns. Storage that keeps primitive columns without boxing writes their items with {@link
+ * #appendIfPrimitive(int, int, StringBuilder)} so they can be rendered without being boxed. Two
+ * instances are equal if they hold equal rows, regardless of how the rows are stored, and the hash code is the same as that of the equivalent {@code
+ * List<List<Object>>}.
+ * <p>
+ * Rendering reads items in place with {@link #get(int, int)}, and {@link #getRowView(int)} reads a
+ * row without copying it. Only {@link #getRow(int)} and {@link #getRows()} copy rows, for {@link
+ * TextTableBuilder#getRows()}, which must return copies.
+ *
+ * @author Rick Venutolo
+ */
+abstract class TableStorage {
+
+    abstract int getNumRows();
+
+    abstract Object get(int row, int column);
+
+    abstract void addRow(@Nonnull Collection<?> row);
+
+    void adoptRow(@Nonnull final Object[] row) {
+        assert row != null;
+        // storage that copies items out of the row anyway does not need to keep the array
+        addRow(Arrays.asList(row));
+    }
+
+    void ensureCapacity(final int minNumRows) {
+        // only a hint, for adding many rows at once
+    }
+
+    void addLongRow(@Nonnull final long[] row) {
+        assert row != null;
+        final List<Object> list = new ArrayList<Object>(row.length);
+        for (final long item : row) {
+            list.add(item);
+        }
+        addRow(list);
+    }
+
+    void addDoubleRow(@Nonnull final double[] row) {
+        assert row != null;
+        final List<Object> list = new ArrayList<Object>(row.length);
+        for (final double item : row) {
+            list.add(item);
+        }
+        addRow(list);
+    }
+
+    boolean appendIfPrimitive(
+            final int row,
+            final int column,
+            @Nonnull final StringBuilder stringBuilder
+    ) {
+        assert stringBuilder != null;
+        // items are only kept as objects unless the storage overrides this
+        return false;
+    }
+
+    abstract int getNumColumns(int row);
+
+    @Nonnull
+    List<Object> getRow(final int row) {
+        return new ArrayList<Object>(getRowView(row));
+    }
+
+    @Nonnull
+    final List<Object> getRowView(final int row) {
+        assert (row >= 0) && (row < getNumRows());
+        return new RowView(row);
+    }
+
+    @Nonnull
+    final List<List<Object>> getRows() {
+        final int numRows = getNumRows();
+        final List<List<Object>> rows = new ArrayList<List<Object>>(numRows);
+        for (int row = 0; row < numRows; row++) {
+            rows.add(getRow(row));
+        }
+        return rows;
+    }
+
+    final void addAll(@Nonnull final TableStorage tableStorage) {
+        assert tableStorage != null;
+        final int numRows = tableStorage.getNumRows();
+        for (int row = 0; row < numRows; row++) {
+            // addRow copies the row, so a view is enough
+            addRow(tableStorage.getRowView(row));
+        }
+    }
+
+    @Override
+    public final boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof TableStorage)) {
+            return false;
+        }
+        final TableStorage that = (TableStorage) object;
+        final int numRows = getNumRows();
+        if (numRows != that.getNumRows()) {
+            return false;
+        }
+        for (int row = 0; row < numRows; row++) {
+            final int numColumns = getNumColumns(row);
+            if (numColumns != that.getNumColumns(row)) {
+                return false;
+            }
+            for (int column = 0; column < numColumns; column++) {
+                final Object item = get(row, column);
+                final Object thatItem = that.get(row, column);
+                if ((item == null) ? (thatItem != null) : !item.equals(thatItem)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public final int hashCode() {
+        // same algorithm as List.hashCode() applied to a list of lists
+        int hashCode = 1;
+        final int numRows = getNumRows();
+        for (int row = 0; row < numRows; row++) {
+            int rowHashCode = 1;
+            final int numColumns = getNumColumns(row);
+            for (int column = 0; column < numColumns; column++) {
+                final Object item = get(row, column);
+                rowHashCode = (31 * rowHashCode) + ((item == null) ? 0 : item.hashCode());
+            }
+            hashCode = (31 * hashCode) + rowHashCode;
+        }
+        return hashCode;
+    }
+
+    /**
+     * Read-only view of a row that reads items straight from the storage instead of copying them.
+     */
+    private final class RowView extends AbstractList<Object> {
+
+        private final int row;
+
+        private RowView(final int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(final int column) {
+            if ((column < 0) || (column >= size())) {
+                throw new IndexOutOfBoundsException("column: " + column);
+            }
+            return TableStorage.this.get(row, column);
+        }
+
+        @Override
+        public int size() {
+            return getNumColumns(row);
+        }
+
+    }
+
+}
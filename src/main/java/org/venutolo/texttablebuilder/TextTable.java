@@ -0,0 +1,201 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+
+import static org.venutolo.texttablebuilder.Rows.checkRowRange;
+
+/**
+ * Immutable snapshot of the rows and options of a {@link TextTableBuilder}, created with {@link
+ * TextTableBuilder#build()}. Any number of threads can render an instance at once without
+ * synchronization, since rendering only reads the snapshot.
+ * <p>
+ * Column widths are measured when the snapshot is built, so rendering does not measure any rows.
+ * Items are not copied, so an item whose string changes after the snapshot is built is rendered
+ * with its new string but is not measured again.
+ *
+ * @author Rick Venutolo
+ * @see TextTableBuilder#build()
+ */
+public final class TextTable {
+
+    // never modified after the snapshot is built, and never exposed
+    @Nonnull
+    private final TextTableBuilder snapshot;
+
+    @Nonnull
+    private final int[] measuredColumnWidths;
+
+    // both caches are racy but benign: threads that render at the same time each store an equal
+    // string and equal lines
+    @Nullable
+    private volatile String renderCache;
+
+    @Nullable
+    private volatile TableLines tableLines;
+
+    TextTable(@Nonnull final TextTableBuilder snapshot, @Nonnull final int[] measuredColumnWidths) {
+        assert snapshot != null;
+        assert measuredColumnWidths != null;
+        this.snapshot = snapshot;
+        this.measuredColumnWidths = measuredColumnWidths;
+    }
+
+    /*========================================================================
+     * SNAPSHOT METHODS
+     *========================================================================*/
+
+    @Nonnull
+    TextTableBuilder getSnapshot() {
+        return snapshot;
+    }
+
+    @Nonnull
+    int[] getMeasuredColumnWidths() {
+        return measuredColumnWidths;
+    }
+
+    @Nullable
+    TableLines getTableLines() {
+        return tableLines;
+    }
+
+    void setTableLines(@Nonnull final TableLines tableLines) {
+        assert tableLines != null;
+        this.tableLines = tableLines;
+    }
+
+    /*========================================================================
+     * NUMBER OF ROW AND COLUMN GETTERS
+     *========================================================================*/
+
+    public int getNumRows() {
+        return snapshot.getNumRows();
+    }
+
+    public int getNumColumns() {
+        return snapshot.getNumColumns();
+    }
+
+    @Nonnull
+    public List<List<Object>> getRows() {
+        return snapshot.getRows();
+    }
+
+    /*========================================================================
+     * TOSTRING / RENDER
+     *========================================================================*/
+
+    /**
+     * Returns the rendered table, the same as {@link TextTableBuilder#toString()} returned when
+     * this snapshot was built. The result is cached.
+     *
+     * @return the rendered table
+     */
+    @Override
+    public String toString() {
+        String rendered = renderCache;
+        if (rendered == null) {
+            rendered = ToStringBuilder.getToStringFor(this);
+            renderCache = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * Renders the table to the given {@link Appendable}, producing the same text as {@link
+     * #toString()}. Each line is appended as soon as it is built, so the full table text is never
+     * held in memory unless it has already been cached by {@link #toString()}.
+     *
+     * @param appendable the destination for the rendered table
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     */
+    @Nonnull
+    public <A extends Appendable> A render(@Nonnull final A appendable) throws IOException {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        final String rendered = renderCache;
+        if (rendered != null) {
+            appendable.append(rendered);
+        } else {
+            ToStringBuilder.render(this, appendable);
+        }
+        return appendable;
+    }
+
+    /**
+     * Renders the rows from {@code fromRow}, inclusive, to {@code toRow}, exclusive, as a table of
+     * their own, the same as {@link TextTableBuilder#toString(int, int, boolean)}.
+     *
+     * @param fromRow the index of the first row to render
+     * @param toRow the index after the last row to render
+     * @param showHeaders {@code true} to render the headers, if there are any
+     *
+     * @return the rendered rows
+     */
+    @Nonnull
+    public String toString(final int fromRow, final int toRow, final boolean showHeaders) {
+        try {
+            return render(new StringBuilder(), fromRow, toRow, showHeaders).toString();
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Renders the rows from {@code fromRow}, inclusive, to {@code toRow}, exclusive, to the given
+     * {@link Appendable}, producing the same text as {@link #toString(int, int, boolean)}.
+     *
+     * @param appendable the destination for the rendered rows
+     * @param fromRow the index of the first row to render
+     * @param toRow the index after the last row to render
+     * @param showHeaders {@code true} to render the headers, if there are any
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final A appendable,
+            final int fromRow,
+            final int toRow,
+            final boolean showHeaders
+    ) throws IOException {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        checkRowRange(fromRow, toRow, getNumRows());
+        ToStringBuilder.renderPage(this, appendable, fromRow, toRow, showHeaders);
+        return appendable;
+    }
+
+    /*========================================================================
+     * EQUALS / HASHCODE
+     *========================================================================*/
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if ((o == null) || (getClass() != o.getClass())) {
+            return false;
+        }
+        final TextTable that = (TextTable) o;
+        return snapshot.equals(that.snapshot);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+}
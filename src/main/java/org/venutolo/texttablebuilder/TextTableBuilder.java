@@ -2,13 +2,22 @@ package org.venutolo.texttablebuilder;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static org.venutolo.texttablebuilder.BoxDrawingCharacters.LIGHT;
+import static org.venutolo.texttablebuilder.Rows.checkRowRange;
+import static org.venutolo.texttablebuilder.Rows.checkRowSize;
+import static org.venutolo.texttablebuilder.Rows.objectArrayToCollection;
 
 /**
  * @author Rick Venutolo
@@ -30,8 +39,22 @@ public class TextTableBuilder {
     @Nullable
     private List<Object> headers;
 
+    private boolean columnarStorage;
+
+    @Nonnull
+    private TableStorage table = emptyTable(false);
+
     @Nonnull
-    private List<List<Object>> table = emptyTable();
+    private ColumnWidths columnWidths = new ColumnWidths();
+
+    // widest row number of the first rowNumWidthNumRows rows
+    private int rowNumWidth;
+
+    private int rowNumWidthNumRows;
+
+    // hash of the rows, the same as that of the equivalent List<List<Object>>, kept up to date as
+    // rows are added so that hashCode() and equals(Object) do not have to read every item
+    private int rowsHash = 1;
 
     @Nonnull
     private BoxDrawingCharacters boxDrawingCharacters = LIGHT;
@@ -57,6 +80,25 @@ public class TextTableBuilder {
     @Nonnull
     private String nullColumnReplacement = EMPTY_STRING;
 
+    @Nullable
+    private String renderCache;
+
+    private long renderCacheHits;
+
+    private long renderCacheMisses;
+
+    @Nullable
+    private RenderListener renderListener;
+
+    private boolean incrementalRender;
+
+    @Nullable
+    private IncrementalRender incrementalRenderState;
+
+    // lines of the last render that do not depend on the rows, for the next render to reuse
+    @Nullable
+    private TableLines tableLines;
+
     /*========================================================================
      * STATIC UTILITY METHODS
      *========================================================================*/
@@ -94,21 +136,33 @@ public class TextTableBuilder {
         return new ArrayList<Object>(collection);
     }
 
-    @Nullable
-    private static Collection<Object> objectArrayToCollection(@Nullable final Object... array) {
-        // want to retain null for later null-checking
-        return (array == null) ? null : Arrays.asList(array);
-    }
-
     @Nonnull
     private static <T> List<T> listForOutput(@Nullable final List<T> list) {
         // output is returned to user, so return empty collection instead of null
         return (list == null) ? new ArrayList<T>() : new ArrayList<T>(list);
     }
 
+    private static int getRowHash(@Nonnull final Collection<?> row) {
+        assert row != null;
+        // same as List.hashCode(), since row may be any kind of collection
+        int rowHash = 1;
+        for (final Object item : row) {
+            rowHash = (31 * rowHash) + ((item == null) ? 0 : item.hashCode());
+        }
+        return rowHash;
+    }
+
     @Nonnull
-    private static List<List<Object>> emptyTable() {
-        return new ArrayList<List<Object>>();
+    private static TableStorage emptyTable(final boolean columnarStorage) {
+        return columnarStorage ? new ColumnarTableStorage() : new RowTableStorage();
+    }
+
+    @Nonnull
+    private TableStorage copyTable() {
+        // the table is always the kind of storage made by emptyTable
+        return columnarStorage
+               ? ((ColumnarTableStorage) table).copy()
+               : ((RowTableStorage) table).copy();
     }
 
     /*========================================================================
@@ -119,17 +173,82 @@ public class TextTableBuilder {
         if (collection == null) {
             throw new IllegalArgumentException("collection cannot be null");
         }
+        checkNumColumns(collection.size());
+    }
+
+    private void checkNumColumns(final int size) {
+        checkRowNumColumns(size);
         if (numColumns == null) {
             // if numColumns is null, this is the first check for number of columns, so set it
-            numColumns = collection.size();
-        } else {
-            if (numColumns != collection.size()) {
-                throw new IllegalArgumentException(
-                        "Wrong number of columns: " + collection.size()
-                        + "; expected " + numColumns + " columns"
-                );
+            numColumns = size;
+        }
+    }
+
+    private void checkRowNumColumns(final int size) {
+        // does not set the number of columns, so that a row only sets it once it has been
+        // measured
+        if (numColumns != null) {
+            checkRowSize(size, numColumns);
+        }
+    }
+
+    private int checkRows(@Nonnull final Collection<? extends Collection<?>> rows) {
+        assert rows != null;
+        // check every row without setting the number of columns, so that nothing changes if a
+        // row is bad
+        int expectedNumColumns = (numColumns == null) ? -1 : numColumns;
+        int index = 0;
+        for (final Collection<?> row : rows) {
+            if (row == null) {
+                throw new IllegalArgumentException("row at index " + index + " cannot be null");
             }
+            final int size = row.size();
+            if (expectedNumColumns == -1) {
+                expectedNumColumns = size;
+            } else {
+                checkRowSize(size, expectedNumColumns);
+            }
+            index++;
         }
+        return expectedNumColumns;
+    }
+
+    private void updateRowsHash(final int rowHash) {
+        rowsHash = (31 * rowsHash) + rowHash;
+    }
+
+    private void invalidateRenderCache() {
+        renderCache = null;
+        incrementalRenderState = null;
+        tableLines = null;
+    }
+
+    private void invalidateRowNumWidth() {
+        rowNumWidth = 0;
+        rowNumWidthNumRows = 0;
+    }
+
+    private void renderCacheHit() {
+        renderCacheHit(RenderStats.UNKNOWN);
+    }
+
+    private void renderCacheHit(final long numBytes) {
+        assert renderCache != null;
+        renderCacheHits++;
+        if (renderListener != null) {
+            RenderMetrics.cacheHit(
+                    renderListener,
+                    getNumRows(),
+                    (long) getNumRows() * getNumColumns(),
+                    renderCache.length(),
+                    numBytes
+            );
+        }
+    }
+
+    private void invalidateRenderCacheForAppendedRow() {
+        // lines already rendered for the other rows stay valid when a row is only appended
+        renderCache = null;
     }
 
     /*========================================================================
@@ -149,6 +268,7 @@ public class TextTableBuilder {
         checkAlignmentsForNull(headerAlignments);
         checkNumColumns(headerAlignments);
         this.headerAlignments = defensiveAlignmentListCopy(headerAlignments);
+        invalidateRenderCache();
         return this;
     }
 
@@ -160,6 +280,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder clearHeaderAlignments() {
         this.headerAlignments = null;
+        invalidateRenderCache();
         return this;
     }
 
@@ -180,6 +301,7 @@ public class TextTableBuilder {
         checkAlignmentsForNull(columnAlignments);
         checkNumColumns(columnAlignments);
         this.columnAlignments = defensiveAlignmentListCopy(columnAlignments);
+        invalidateRenderCache();
         return this;
     }
 
@@ -191,6 +313,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder clearColumnAlignments() {
         this.columnAlignments = null;
+        invalidateRenderCache();
         return this;
     }
 
@@ -210,6 +333,7 @@ public class TextTableBuilder {
         }
         checkNumColumns(headers);
         this.headers = defensiveObjectListCopy(headers);
+        invalidateRenderCache();
         return this;
     }
 
@@ -221,6 +345,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder clearHeaders() {
         this.headers = null;
+        invalidateRenderCache();
         return this;
     }
 
@@ -230,11 +355,7 @@ public class TextTableBuilder {
 
     @Nonnull
     public List<List<Object>> getRows() {
-        final List<List<Object>> tableToReturn = new ArrayList<List<Object>>(table.size());
-        for (final List<Object> row : table) {
-            tableToReturn.add(listForOutput(row));
-        }
-        return tableToReturn;
+        return table.getRows();
     }
 
     @Nonnull
@@ -242,8 +363,17 @@ public class TextTableBuilder {
         if (row == null) {
             throw new IllegalArgumentException("row cannot be null");
         }
-        checkNumColumns(row);
-        table.add(defensiveObjectListCopy(row));
+        checkRowNumColumns(row.size());
+        // items are hashed and measured before the row is stored, so that an item whose
+        // hashCode() or toString() throws leaves the rows, their hash, the number of columns and
+        // the cache unchanged
+        final int rowHash = getRowHash(row);
+        columnWidths.update(row);
+        checkNumColumns(row.size());
+        // storage copies the row, so no defensive copy is needed here
+        table.addRow(row);
+        updateRowsHash(rowHash);
+        invalidateRenderCacheForAppendedRow();
         return this;
     }
 
@@ -252,9 +382,139 @@ public class TextTableBuilder {
         return addRow(objectArrayToCollection(row));
     }
 
+    /**
+     * Adds a row, the same as {@link #addRow(Object...)}, except that the given array is kept as
+     * the row instead of being copied. The array must not be modified afterwards: changes to it
+     * would be seen by {@link #getRows()} and by rendering, but the changed items would not be
+     * measured. This suits callers that build each row as a new array and never use it again.
+     *
+     * @param row the items of the row, which this instance takes ownership of
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder adoptRow(@Nonnull final Object... row) {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        checkRowNumColumns(row.length);
+        // same as List.hashCode() of the row
+        final int rowHash = Arrays.hashCode(row);
+        columnWidths.update(row);
+        checkNumColumns(row.length);
+        table.adoptRow(row);
+        updateRowsHash(rowHash);
+        invalidateRenderCacheForAppendedRow();
+        return this;
+    }
+
+    /**
+     * Adds rows, the same as adding each of them with {@link #addRow(Collection)}, but checking
+     * every row before any of them are added and making room for all of them at once. If any row
+     * is null or has the wrong number of columns, or an item cannot be measured, no rows are
+     * added.
+     *
+     * @param rows the rows to add, each a collection of items
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder addRows(@Nonnull final Collection<? extends Collection<?>> rows) {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows cannot be null");
+        }
+        final int rowsNumColumns = checkRows(rows);
+        if (!rows.isEmpty()) {
+            // every row is hashed and measured before any is stored, so that an item whose
+            // hashCode() or toString() throws leaves this instance unchanged
+            int newRowsHash = rowsHash;
+            final ColumnWidths rowsColumnWidths = new ColumnWidths();
+            for (final Collection<?> row : rows) {
+                newRowsHash = (31 * newRowsHash) + getRowHash(row);
+                rowsColumnWidths.update(row);
+            }
+            checkNumColumns(rowsNumColumns);
+            table.ensureCapacity(table.getNumRows() + rows.size());
+            for (final Collection<?> row : rows) {
+                table.addRow(row);
+            }
+            columnWidths.update(rowsColumnWidths);
+            rowsHash = newRowsHash;
+            invalidateRenderCacheForAppendedRow();
+        }
+        return this;
+    }
+
+    @Nonnull
+    public TextTableBuilder addRows(@Nonnull final Object[]... rows) {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows cannot be null");
+        }
+        final List<Collection<Object>> rowCollections =
+                new ArrayList<Collection<Object>>(rows.length);
+        for (final Object[] row : rows) {
+            rowCollections.add(objectArrayToCollection(row));
+        }
+        return addRows(rowCollections);
+    }
+
+    /**
+     * Adds a row of {@code long} items. With {@linkplain #setColumnarStorage(boolean) columnar
+     * storage}, a table whose first row is added with this method keeps its columns in {@code
+     * long[]} arrays and renders the items without boxing them or creating strings. Otherwise the
+     * items are stored the same as if they were added with {@link #addRow(Object...)}.
+     *
+     * @param row the items of the row
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder addLongRow(@Nonnull final long... row) {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        checkRowNumColumns(row.length);
+        columnWidths.update(row);
+        checkNumColumns(row.length);
+        table.addLongRow(row);
+        // same as List.hashCode() of the boxed items
+        updateRowsHash(Arrays.hashCode(row));
+        invalidateRenderCacheForAppendedRow();
+        return this;
+    }
+
+    /**
+     * Adds a row of {@code double} items. With {@linkplain #setColumnarStorage(boolean) columnar
+     * storage}, a table whose first row is added with this method keeps its columns in {@code
+     * double[]} arrays and renders the items without boxing them or creating strings. Otherwise
+     * the items are stored the same as if they were added with {@link #addRow(Object...)}.
+     *
+     * @param row the items of the row
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder addDoubleRow(@Nonnull final double... row) {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        checkRowNumColumns(row.length);
+        columnWidths.update(row);
+        checkNumColumns(row.length);
+        table.addDoubleRow(row);
+        // same as List.hashCode() of the boxed items
+        updateRowsHash(Arrays.hashCode(row));
+        invalidateRenderCacheForAppendedRow();
+        return this;
+    }
+
     @Nonnull
     public TextTableBuilder clearRows() {
-        table = emptyTable();
+        table = emptyTable(columnarStorage);
+        columnWidths = new ColumnWidths();
+        rowsHash = 1;
+        invalidateRowNumWidth();
+        invalidateRenderCache();
         return this;
     }
 
@@ -263,13 +523,79 @@ public class TextTableBuilder {
      *========================================================================*/
 
     public int getNumRows() {
-        return table.size();
+        return table.getNumRows();
     }
 
     public int getNumColumns() {
         return (numColumns == null) ? 0 : numColumns;
     }
 
+    /*========================================================================
+     * STORAGE METHODS
+     *========================================================================*/
+
+    @Nonnull
+    TableStorage getTableStorage() {
+        return table;
+    }
+
+    int getRowsColumnWidth(final int column) {
+        // items are measured when their row is added, so an item whose string changes afterwards
+        // is not measured again
+        return columnWidths.getWidth(column, nullColumnReplacement);
+    }
+
+    @Nullable
+    TableLines getTableLines() {
+        return tableLines;
+    }
+
+    void setTableLines(@Nonnull final TableLines tableLines) {
+        assert tableLines != null;
+        this.tableLines = tableLines;
+    }
+
+    int getRowNumWidth() {
+        // row numbers are measured once, so a render only measures the rows added since the last
+        final int numRows = table.getNumRows();
+        rowNumWidth = Math.max(
+                rowNumWidth,
+                ToStringBuilder.getRowNumWidth(rowNumFormat, rowNumWidthNumRows, numRows)
+        );
+        rowNumWidthNumRows = numRows;
+        return rowNumWidth;
+    }
+
+    public boolean getColumnarStorage() {
+        return columnarStorage;
+    }
+
+    /**
+     * Sets whether rows are stored column by column, with one growable array per column, instead
+     * of one list per row. Columnar storage uses roughly one reference per item, which matters for
+     * tables with many rows. Rows that have already been added are moved to the new storage. This
+     * has no effect on the rows returned by {@link #getRows()} or on the rendered table.
+     *
+     * @param columnarStorage {@code true} to store rows column by column
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder setColumnarStorage(final boolean columnarStorage) {
+        if (this.columnarStorage != columnarStorage) {
+            final TableStorage newTable = emptyTable(columnarStorage);
+            newTable.addAll(table);
+            table = newTable;
+            this.columnarStorage = columnarStorage;
+        }
+        return this;
+    }
+
+    @Nonnull
+    public TextTableBuilder columnarStorage() {
+        return setColumnarStorage(true);
+    }
+
     /*========================================================================
      * MISC OPTION METHODS
      *========================================================================*/
@@ -285,6 +611,7 @@ public class TextTableBuilder {
             throw new IllegalArgumentException("box drawing characters cannot be null");
         }
         this.boxDrawingCharacters = boxDrawingCharacters;
+        invalidateRenderCache();
         return this;
     }
 
@@ -300,6 +627,7 @@ public class TextTableBuilder {
             );
         }
         this.repeatHeadersEveryXRows = repeatHeadersEveryXRows;
+        invalidateRenderCache();
         return this;
     }
 
@@ -310,6 +638,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder setRepeatHeadersAtBottom(final boolean repeatHeadersAtBottom) {
         this.repeatHeadersAtBottom = repeatHeadersAtBottom;
+        invalidateRenderCache();
         return this;
     }
 
@@ -325,6 +654,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder setShowRowNums(final boolean showRowNums) {
         this.showRowNums = showRowNums;
+        invalidateRenderCache();
         return this;
     }
 
@@ -341,6 +671,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder setRowNumHeader(@Nullable final String rowNumHeader) {
         this.rowNumHeader = (rowNumHeader == null) ? EMPTY_STRING : rowNumHeader;
+        invalidateRenderCache();
         return this;
     }
 
@@ -351,6 +682,8 @@ public class TextTableBuilder {
 
     public TextTableBuilder setRowNumFormat(@Nullable final NumberFormat rowNumFormat) {
         this.rowNumFormat = rowNumFormat;
+        invalidateRowNumWidth();
+        invalidateRenderCache();
         return this;
     }
 
@@ -362,6 +695,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder setLinePrepender(@Nullable final String linePrepender) {
         this.linePrepender = (linePrepender == null) ? EMPTY_STRING : linePrepender;
+        invalidateRenderCache();
         return this;
     }
 
@@ -373,6 +707,7 @@ public class TextTableBuilder {
     @Nonnull
     public TextTableBuilder setLineAppender(@Nullable final String lineAppender) {
         this.lineAppender = (lineAppender == null) ? EMPTY_STRING : lineAppender;
+        invalidateRenderCache();
         return this;
     }
 
@@ -386,16 +721,547 @@ public class TextTableBuilder {
         this.nullColumnReplacement = (nullColumnReplacement == null)
                                      ? EMPTY_STRING
                                      : nullColumnReplacement;
+        invalidateRenderCache();
         return this;
     }
 
     /*========================================================================
-     * TOSTRING
+     * SNAPSHOT METHODS
      *========================================================================*/
 
+    /**
+     * Returns an immutable snapshot of this instance's rows and options, which any number of
+     * threads can render at once without synchronization. Column widths are measured and the rows
+     * are copied when the snapshot is built, so this instance can keep being changed, for example
+     * by adding rows for the next snapshot, without affecting it.
+     *
+     * @return an immutable snapshot of the table
+     */
+    @Nonnull
+    public TextTable build() {
+        final TextTableBuilder snapshot = snapshot(copyTable());
+        snapshot.rowsHash = rowsHash;
+        return new TextTable(snapshot, ToStringBuilder.getMeasuredColumnWidths(this));
+    }
+
+    @Nonnull
+    TextTable build(
+            @Nullable final Integer rowsNumColumns,
+            @Nonnull final List<? extends Collection<?>> rows,
+            @Nonnull final ColumnWidths rowsColumnWidths
+    ) {
+        assert rows != null;
+        assert rowsColumnWidths != null;
+        // for rows collected elsewhere, which have already been checked and measured
+        final TableStorage snapshotTable = emptyTable(columnarStorage);
+        int snapshotRowsHash = 1;
+        for (final Collection<?> row : rows) {
+            snapshotTable.addRow(row);
+            snapshotRowsHash = (31 * snapshotRowsHash) + getRowHash(row);
+        }
+        final TextTableBuilder snapshot = snapshot(snapshotTable);
+        snapshot.rowsHash = snapshotRowsHash;
+        if (rowsNumColumns != null) {
+            snapshot.numColumns = rowsNumColumns;
+        }
+        snapshot.columnWidths = rowsColumnWidths;
+        return new TextTable(snapshot, ToStringBuilder.getMeasuredColumnWidths(snapshot));
+    }
+
+    @Nonnull
+    private TextTableBuilder snapshot(@Nonnull final TableStorage snapshotTable) {
+        assert snapshotTable != null;
+        final TextTableBuilder snapshot = new TextTableBuilder();
+        snapshot.numColumns = numColumns;
+        // lists are replaced rather than modified by setters, so they can be shared
+        snapshot.headerAlignments = headerAlignments;
+        snapshot.columnAlignments = columnAlignments;
+        snapshot.headers = headers;
+        snapshot.columnarStorage = columnarStorage;
+        snapshot.table = snapshotTable;
+        snapshot.boxDrawingCharacters = boxDrawingCharacters;
+        snapshot.repeatHeadersEveryXRows = repeatHeadersEveryXRows;
+        snapshot.repeatHeadersAtBottom = repeatHeadersAtBottom;
+        snapshot.showRowNums = showRowNums;
+        snapshot.rowNumHeader = rowNumHeader;
+        snapshot.rowNumFormat = (rowNumFormat == null)
+                                ? null
+                                : (NumberFormat) rowNumFormat.clone();
+        snapshot.linePrepender = linePrepender;
+        snapshot.lineAppender = lineAppender;
+        snapshot.nullColumnReplacement = nullColumnReplacement;
+        return snapshot;
+    }
+
+    @Nonnull
+    private TextTableBuilder optionsSnapshot() {
+        // options only, for a writer, concurrent builder or layout of other rows, which must never
+        // modify or expose it; it has no rows
+        final TextTableBuilder options = snapshot(emptyTable(columnarStorage));
+        if ((headers == null) && (headerAlignments == null) && (columnAlignments == null)) {
+            // the number of columns was set by rows, which are not part of the snapshot
+            options.numColumns = null;
+        }
+        return options;
+    }
+
+    /*========================================================================
+     * TOSTRING / RENDER
+     *========================================================================*/
+
+    /**
+     * Returns the rendered table. The result is cached and returned again by later calls until
+     * this instance is changed by a setter, {@code add} or {@code clear} method. Changes made to
+     * items or to the row number format after they were given to this instance are not detected.
+     *
+     * @return the rendered table
+     */
     @Override
     public String toString() {
-        return ToStringBuilder.getToStringFor(this);
+        if (renderCache != null) {
+            renderCacheHit();
+            return renderCache;
+        }
+        renderCacheMisses++;
+        if (incrementalRender) {
+            if (incrementalRenderState == null) {
+                incrementalRenderState = new IncrementalRender();
+            }
+            renderCache = ToStringBuilder.getToStringFor(this, incrementalRenderState);
+        } else {
+            renderCache = ToStringBuilder.getToStringFor(this);
+        }
+        return renderCache;
+    }
+
+    /**
+     * Returns the rendered table, the same as {@link #toString()}, rendering blocks of rows as
+     * tasks on the given {@link ExecutorService} when the table is not cached. This uses the
+     * same render cache as {@link #toString()}. The calling thread waits for the tasks to
+     * complete, so the executor must not be one whose threads are all busy waiting. Items may
+     * have their {@code toString()} called from the executor's threads.
+     *
+     * @param executorService the executor to render blocks of rows on
+     *
+     * @return the rendered table
+     *
+     * @throws IllegalStateException if the calling thread is interrupted while waiting
+     */
+    @Nonnull
+    public String toString(@Nonnull final ExecutorService executorService) {
+        if (executorService == null) {
+            throw new IllegalArgumentException("executorService cannot be null");
+        }
+        if (renderCache != null) {
+            renderCacheHit();
+            return renderCache;
+        }
+        renderCacheMisses++;
+        renderCache = ToStringBuilder.getToStringFor(this, executorService);
+        return renderCache;
+    }
+
+    public boolean getIncrementalRender() {
+        return incrementalRender;
+    }
+
+    /**
+     * Sets whether {@link #toString()} keeps the lines it has rendered so that, when rows have
+     * only been appended since the last call, it renders just the new rows and the lines below
+     * them. If an appended row makes a column wider, every line is rendered again. Any other
+     * change to this instance also causes every line to be rendered again.
+     * <p>
+     * This suits tables that are printed repeatedly while rows are appended to them, at the cost
+     * of holding the rendered lines in memory in addition to the rows.
+     *
+     * @param incrementalRender {@code true} to render appended rows incrementally
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder setIncrementalRender(final boolean incrementalRender) {
+        this.incrementalRender = incrementalRender;
+        if (!incrementalRender) {
+            incrementalRenderState = null;
+        }
+        return this;
+    }
+
+    @Nonnull
+    public TextTableBuilder incrementalRender() {
+        return setIncrementalRender(true);
+    }
+
+    /**
+     * Returns how many times {@link #toString()} or one of the {@code render} or {@code write}
+     * methods reused the cached rendered table.
+     *
+     * @return the number of render cache hits
+     */
+    public long getRenderCacheHits() {
+        return renderCacheHits;
+    }
+
+    /**
+     * Returns how many times {@link #toString()} had to render the table because there was no
+     * cached rendered table.
+     *
+     * @return the number of render cache misses
+     */
+    public long getRenderCacheMisses() {
+        return renderCacheMisses;
+    }
+
+    @Nullable
+    public RenderListener getRenderListener() {
+        return renderListener;
+    }
+
+    /**
+     * Sets the listener that is given the {@link RenderStats} of each render of the whole table or
+     * a page of it, including renders that reuse the cached rendered table. Without a listener,
+     * rendering is not timed or counted. The listener is not part of the table, so it is not
+     * compared by {@link #equals(Object)} and not copied by {@link #build()}.
+     *
+     * @param renderListener the listener, or {@code null} for none
+     *
+     * @return this instance
+     */
+    @Nonnull
+    public TextTableBuilder setRenderListener(@Nullable final RenderListener renderListener) {
+        this.renderListener = renderListener;
+        return this;
+    }
+
+    /**
+     * Renders the table to the given {@link Appendable}, producing the same text as {@link
+     * #toString()}. Each line is appended as soon as it is built, so the full table text is never
+     * held in memory.
+     *
+     * @param appendable the destination for the rendered table
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     */
+    @Nonnull
+    public <A extends Appendable> A render(@Nonnull final A appendable) throws IOException {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        if (renderCache != null) {
+            renderCacheHit();
+            appendable.append(renderCache);
+        } else {
+            // streaming the table does not fill the cache, so that the whole table is never held
+            ToStringBuilder.render(this, appendable);
+        }
+        return appendable;
+    }
+
+    /**
+     * Renders the table to the given {@link Appendable}, the same as {@link #render(Appendable)},
+     * rendering blocks of rows as tasks on the given {@link ExecutorService}. Blocks are appended
+     * in order as they complete, so blocks that have been rendered but not yet appended are held
+     * in memory.
+     *
+     * @param appendable the destination for the rendered table
+     * @param executorService the executor to render blocks of rows on
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}, or an {@link
+     * java.io.InterruptedIOException} if the calling thread is interrupted while waiting
+     * @see #toString(ExecutorService)
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final A appendable,
+            @Nonnull final ExecutorService executorService
+    ) throws IOException {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        if (executorService == null) {
+            throw new IllegalArgumentException("executorService cannot be null");
+        }
+        if (renderCache != null) {
+            renderCacheHit();
+            appendable.append(renderCache);
+        } else {
+            ToStringBuilder.render(this, appendable, executorService);
+        }
+        return appendable;
+    }
+
+    /**
+     * Renders the rows from {@code fromRow}, inclusive, to {@code toRow}, exclusive, as a table of
+     * their own, with top and bottom lines and optionally the headers. Columns are as wide as
+     * they are when the whole table is rendered, so that pages of the same table line up. Row
+     * numbers and repeated headers are the same as for those rows in the whole table. Column
+     * widths are kept as rows are added, so the cost grows with the number of rows rendered
+     * rather than the size of the table.
+     *
+     * @param fromRow the index of the first row to render
+     * @param toRow the index after the last row to render
+     * @param showHeaders {@code true} to render the headers, if there are any
+     *
+     * @return the rendered rows
+     */
+    @Nonnull
+    public String toString(final int fromRow, final int toRow, final boolean showHeaders) {
+        try {
+            return render(new StringBuilder(), fromRow, toRow, showHeaders).toString();
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Renders the rows from {@code fromRow}, inclusive, to {@code toRow}, exclusive, to the given
+     * {@link Appendable}, producing the same text as {@link #toString(int, int, boolean)}.
+     *
+     * @param appendable the destination for the rendered rows
+     * @param fromRow the index of the first row to render
+     * @param toRow the index after the last row to render
+     * @param showHeaders {@code true} to render the headers, if there are any
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final A appendable,
+            final int fromRow,
+            final int toRow,
+            final boolean showHeaders
+    ) throws IOException {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        checkRowRange(fromRow, toRow, table.getNumRows());
+        ToStringBuilder.renderPage(this, appendable, fromRow, toRow, showHeaders);
+        return appendable;
+    }
+
+    /**
+     * Renders a table with the rows read from the given {@link TableSource} instead of the rows
+     * of this instance, using this instance's headers, alignments and other options. The rows are
+     * read twice, once to measure the widths of the columns and once to render them, and only one
+     * row is held at a time while rendering. Each row must have the same number of columns as
+     * this instance's headers or rows, or, if it has neither, as the first row.
+     *
+     * @param tableSource the source of the rows to render
+     * @param appendable the destination for the rendered table
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}, or closing an iterator
+     * of the rows does
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final TableSource tableSource,
+            @Nonnull final A appendable
+    ) throws IOException {
+        if (tableSource == null) {
+            throw new IllegalArgumentException("tableSource cannot be null");
+        }
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        ToStringBuilder.render(this, tableSource, numColumns, appendable);
+        return appendable;
+    }
+
+    /**
+     * Renders a table with the rows read from the given {@link TableSource}, the same as {@link
+     * #render(TableSource, Appendable)}, except that the columns have the given widths instead of
+     * being measured, so the rows are only read once. There is one width for each column,
+     * including the row number column if row numbers are shown. Columns are still made wide
+     * enough for their headers. Items wider than their column are not truncated.
+     *
+     * @param tableSource the source of the rows to render
+     * @param appendable the destination for the rendered table
+     * @param columnWidths the width of each column
+     *
+     * @return the given appendable
+     *
+     * @throws IOException if the appendable throws an {@link IOException}, or closing an iterator
+     * of the rows does
+     */
+    @Nonnull
+    public <A extends Appendable> A render(
+            @Nonnull final TableSource tableSource,
+            @Nonnull final A appendable,
+            @Nonnull final int... columnWidths
+    ) throws IOException {
+        if (tableSource == null) {
+            throw new IllegalArgumentException("tableSource cannot be null");
+        }
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        if (columnWidths == null) {
+            throw new IllegalArgumentException("columnWidths cannot be null");
+        }
+        final int firstTableColumn = showRowNums ? 1 : 0;
+        final int expectedNumColumnWidths = getNumColumns() + firstTableColumn;
+        if ((columnWidths.length < firstTableColumn)
+            || ((numColumns != null) && (columnWidths.length != expectedNumColumnWidths))) {
+            throw new IllegalArgumentException(
+                    "Wrong number of column widths: " + columnWidths.length
+                    + "; expected " + expectedNumColumnWidths + " column widths"
+            );
+        }
+        for (final int columnWidth : columnWidths) {
+            if (columnWidth < 0) {
+                throw new IllegalArgumentException("column width cannot be negative: " + columnWidth);
+            }
+        }
+        ToStringBuilder.render(this, tableSource, columnWidths, appendable);
+        return appendable;
+    }
+
+    /**
+     * Returns a new {@link TextTableWriter} that writes a table to the given {@link Appendable}
+     * one row at a time, using this instance's headers, alignments and other options as they are
+     * when this is called. The rows of this instance are not written, and do not fix the number
+     * of columns of the writer.
+     *
+     * @param appendable the destination for the table
+     *
+     * @return a new writer
+     */
+    @Nonnull
+    public TextTableWriter newWriter(@Nonnull final Appendable appendable) {
+        if (appendable == null) {
+            throw new IllegalArgumentException("appendable cannot be null");
+        }
+        return new TextTableWriter(optionsSnapshot(), appendable);
+    }
+
+    /**
+     * Returns a new {@link ConcurrentTextTableBuilder} that any number of threads can add rows to
+     * at once, using this instance's headers, alignments and other options as they are when this
+     * is called. The rows of this instance are not included, and do not fix the number of
+     * columns of the new builder.
+     *
+     * @param rowOrder the order of the rows added by different threads
+     *
+     * @return a new concurrent builder
+     */
+    @Nonnull
+    public ConcurrentTextTableBuilder newConcurrentBuilder(@Nonnull final RowOrder rowOrder) {
+        if (rowOrder == null) {
+            throw new IllegalArgumentException("rowOrder cannot be null");
+        }
+        return new ConcurrentTextTableBuilder(optionsSnapshot(), rowOrder);
+    }
+
+    /**
+     * Returns a new {@link TableLayout} that renders tables of rows given to it, using this
+     * instance's headers, alignments and other options as they are when this is called. The rows
+     * of this instance are not included, and do not fix the number of columns of the layout.
+     *
+     * @return a new layout
+     */
+    @Nonnull
+    public TableLayout compileLayout() {
+        return new TableLayout(optionsSnapshot());
+    }
+
+    /**
+     * Writes the table to the given {@link Writer}, producing the same text as {@link
+     * #toString()}, then flushes the writer. The writer is not closed.
+     *
+     * @param writer the destination for the rendered table
+     *
+     * @throws IOException if the writer throws an {@link IOException}
+     */
+    public void writeTo(@Nonnull final Writer writer) throws IOException {
+        if (writer == null) {
+            throw new IllegalArgumentException("writer cannot be null");
+        }
+        if (renderCache != null) {
+            renderCacheHit();
+            writer.write(renderCache);
+            writer.flush();
+        } else {
+            ToStringBuilder.writeTo(this, writer);
+        }
+    }
+
+    /**
+     * Writes the table to the given {@link OutputStream} encoded as UTF-8, producing the same
+     * bytes as encoding {@link #toString()} as UTF-8, then flushes the stream. The table is
+     * encoded into a small reusable buffer as it is rendered, so neither the table text nor its
+     * encoded bytes are ever held in memory. The stream is not closed.
+     *
+     * @param outputStream the destination for the encoded table
+     *
+     * @throws IOException if the stream throws an {@link IOException}
+     */
+    public void writeUtf8To(@Nonnull final OutputStream outputStream) throws IOException {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("outputStream cannot be null");
+        }
+        // encodes the cached table when there is one, but does not fill the cache
+        final boolean cacheHit = renderCache != null;
+        final long numBytes = Utf8LineWriter.writeTo(this, renderCache, outputStream);
+        if (cacheHit) {
+            renderCacheHit(numBytes);
+        }
+    }
+
+    /**
+     * Puts the table into the given {@link ByteBuffer} encoded as UTF-8, producing the same bytes
+     * as encoding {@link #toString()} as UTF-8, starting at the buffer's position.
+     *
+     * @param byteBuffer the destination for the encoded table
+     *
+     * @return the given byte buffer, positioned after the encoded table
+     *
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough space
+     *                                          remaining, in which case part of the table may
+     *                                          have been put into the buffer
+     */
+    @Nonnull
+    public ByteBuffer writeUtf8To(@Nonnull final ByteBuffer byteBuffer) {
+        if (byteBuffer == null) {
+            throw new IllegalArgumentException("byteBuffer cannot be null");
+        }
+        // encodes the cached table when there is one, but does not fill the cache
+        final boolean cacheHit = renderCache != null;
+        final long numBytes = Utf8LineWriter.writeTo(this, renderCache, byteBuffer);
+        if (cacheHit) {
+            renderCacheHit(numBytes);
+        }
+        return byteBuffer;
+    }
+
+    /**
+     * Writes the table to the given file encoded as UTF-8, producing the same bytes as encoding
+     * {@link #toString()} as UTF-8. The file is created if it does not exist and replaced if it
+     * does. The table is encoded into a small reusable buffer that is written to the file's
+     * channel whenever it fills, so memory use does not grow with the size of the table.
+     *
+     * @param file the file to write the encoded table to
+     *
+     * @throws IOException if the file cannot be opened or written
+     */
+    public void writeUtf8To(@Nonnull final File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        // encodes the cached table when there is one, but does not fill the cache
+        final boolean cacheHit = renderCache != null;
+        final long numBytes = Utf8LineWriter.writeTo(this, renderCache, file);
+        if (cacheHit) {
+            renderCacheHit(numBytes);
+        }
     }
 
     /*========================================================================
@@ -403,6 +1269,7 @@ public class TextTableBuilder {
      *========================================================================*/
 
     private Object[] getObjectArray() {
+        // rows are compared separately, since they are by far the most expensive to compare
         return new Object[]{
                 repeatHeadersEveryXRows,
                 repeatHeadersAtBottom,
@@ -410,7 +1277,6 @@ public class TextTableBuilder {
                 headerAlignments,
                 columnAlignments,
                 headers,
-                table,
                 boxDrawingCharacters,
                 linePrepender,
                 lineAppender,
@@ -418,6 +1284,22 @@ public class TextTableBuilder {
         };
     }
 
+    private boolean hasSameNumColumnsInRows(@Nonnull final TextTableBuilder that) {
+        assert that != null;
+        return (table.getNumRows() == 0) || (table.getNumColumns(0) == that.table.getNumColumns(0));
+    }
+
+    /**
+     * Compares the options and rows of this instance to those of another. The number of rows and
+     * columns and a hash of the rows are compared first, so that instances with different rows
+     * are almost always told apart without comparing their items. Rows are hashed when they are
+     * added, so changes made to items afterwards are not detected by this or {@link #hashCode()}.
+     *
+     * @param o the object to compare to
+     *
+     * @return {@code true} if the other object is a {@code TextTableBuilder} with equal options
+     * and rows
+     */
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -427,12 +1309,16 @@ public class TextTableBuilder {
             return false;
         }
         final TextTableBuilder that = (TextTableBuilder) o;
-        return Arrays.equals(getObjectArray(), that.getObjectArray());
+        return (table.getNumRows() == that.table.getNumRows())
+               && hasSameNumColumnsInRows(that)
+               && (rowsHash == that.rowsHash)
+               && Arrays.equals(getObjectArray(), that.getObjectArray())
+               && table.equals(that.table);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(getObjectArray());
+        return (31 * Arrays.hashCode(getObjectArray())) + rowsHash;
     }
 
 }
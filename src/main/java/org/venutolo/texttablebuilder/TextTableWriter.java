@@ -0,0 +1,351 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.venutolo.texttablebuilder.CellOverflow.OVERFLOW;
+import static org.venutolo.texttablebuilder.CellOverflow.TRUNCATE;
+import static org.venutolo.texttablebuilder.Rows.checkRowSize;
+import static org.venutolo.texttablebuilder.Rows.objectArrayToCollection;
+
+/**
+ * Writes a table one row at a time to an {@link Appendable}, for streams of rows that may never
+ * end. Each row is written as soon as it is given, so memory use does not grow with the number of
+ * rows.
+ * <p>
+ * Columns have fixed widths, either declared with {@link #setColumnWidths(int...)} or measured
+ * from the first {@link #setMeasuredRows(int) measured rows}, which are held until they have all
+ * been given. Items wider than their column are written according to the {@link CellOverflow}.
+ * Unless declared, the row number column is wide enough for any row number, since the number of
+ * rows is not known when the top of the table is written.
+ * Columns are always wide enough for their headers. The headers, alignments and other options are
+ * those of the {@link TextTableBuilder} that created this instance as they were when it was
+ * created, so later changes to the builder do not affect it; its rows are not written.
+ *
+ * @author Rick Venutolo
+ * @see TextTableBuilder#newWriter(Appendable)
+ */
+public final class TextTableWriter {
+
+    private static final int DEFAULT_MEASURED_ROWS = 1;
+
+    @Nonnull
+    private final TextTableBuilder textTableBuilder;
+
+    @Nonnull
+    private final Appendable appendable;
+
+    @Nullable
+    private int[] columnWidths;
+
+    private int measuredRows = DEFAULT_MEASURED_ROWS;
+
+    @Nullable
+    private Integer rowNumWidth;
+
+    @Nonnull
+    private CellOverflow cellOverflow = OVERFLOW;
+
+    @Nullable
+    private Integer numColumns;
+
+    @Nonnull
+    private final List<List<Object>> measuredRowsBuffer = new ArrayList<List<Object>>();
+
+    @Nonnull
+    private final ColumnWidths measuredRowsColumnWidths = new ColumnWidths();
+
+    // null until the top of the table has been written
+    @Nullable
+    private ToStringBuilder toStringBuilder;
+
+    private int numRows;
+
+    private boolean finished;
+
+    TextTableWriter(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final Appendable appendable
+    ) {
+        assert textTableBuilder != null;
+        assert appendable != null;
+        this.textTableBuilder = textTableBuilder;
+        this.appendable = appendable;
+        if (textTableBuilder.getNumColumns() != 0) {
+            numColumns = textTableBuilder.getNumColumns();
+        }
+    }
+
+    /*========================================================================
+     * INSTANCE UTILITY METHODS
+     *========================================================================*/
+
+    private void checkNotStarted() {
+        if ((toStringBuilder != null) || !measuredRowsBuffer.isEmpty() || finished) {
+            throw new IllegalStateException("options cannot be changed after writing has started");
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("writer is finished");
+        }
+    }
+
+    private void checkNumColumns(final int size) {
+        if (numColumns == null) {
+            // without headers or declared widths, the first row sets the number of columns
+            numColumns = size;
+        } else {
+            checkRowSize(size, numColumns);
+        }
+    }
+
+    @Nonnull
+    private int[] getMeasuredColumnWidths() {
+        final int firstTableColumn = textTableBuilder.getShowRowNums() ? 1 : 0;
+        final int numTableColumns = (numColumns == null) ? 0 : numColumns;
+        final int[] measuredColumnWidths = new int[numTableColumns + firstTableColumn];
+        if (firstTableColumn != 0) {
+            // rows after the measured rows can have any row number, up to the largest int
+            measuredColumnWidths[0] = (rowNumWidth == null)
+                                      ? ToStringBuilder.getRowNumWidth(
+                                              textTableBuilder.getRowNumFormat(),
+                                              Integer.MAX_VALUE - 1,
+                                              Integer.MAX_VALUE
+                                      )
+                                      : rowNumWidth;
+        }
+        for (int i = firstTableColumn; i < measuredColumnWidths.length; i++) {
+            measuredColumnWidths[i] = measuredRowsColumnWidths.getWidth(
+                    i - firstTableColumn,
+                    textTableBuilder.getNullColumnReplacement()
+            );
+        }
+        return measuredColumnWidths;
+    }
+
+    @Nonnull
+    private ToStringBuilder start() throws IOException {
+        assert toStringBuilder == null;
+        final int[] startColumnWidths = (columnWidths == null)
+                                        ? getMeasuredColumnWidths()
+                                        : columnWidths;
+        final int numTableColumns =
+                startColumnWidths.length - (textTableBuilder.getShowRowNums() ? 1 : 0);
+        final ToStringBuilder startedToStringBuilder = ToStringBuilder.forStreaming(
+                textTableBuilder,
+                numTableColumns,
+                startColumnWidths,
+                cellOverflow == TRUNCATE
+        );
+        startedToStringBuilder.startStreaming(appendable);
+        for (final List<Object> measuredRow : measuredRowsBuffer) {
+            startedToStringBuilder.streamRow(measuredRow);
+        }
+        measuredRowsBuffer.clear();
+        toStringBuilder = startedToStringBuilder;
+        return startedToStringBuilder;
+    }
+
+    /*========================================================================
+     * OPTION METHODS
+     *========================================================================*/
+
+    @Nullable
+    public int[] getColumnWidths() {
+        return (columnWidths == null) ? null : columnWidths.clone();
+    }
+
+    /**
+     * Declares the width of each column, so that rows are written as soon as they are given
+     * instead of first measuring rows. There is one width for each column, including the row
+     * number column if row numbers are shown.
+     *
+     * @param columnWidths the width of each column
+     *
+     * @return this instance
+     *
+     * @throws IllegalStateException if writing has started
+     */
+    @Nonnull
+    public TextTableWriter setColumnWidths(@Nonnull final int... columnWidths) {
+        if (columnWidths == null) {
+            throw new IllegalArgumentException("columnWidths cannot be null");
+        }
+        checkNotStarted();
+        final int firstTableColumn = textTableBuilder.getShowRowNums() ? 1 : 0;
+        final int numTableColumns = columnWidths.length - firstTableColumn;
+        if ((numTableColumns < 0)
+            || ((textTableBuilder.getNumColumns() != 0)
+                && (numTableColumns != textTableBuilder.getNumColumns()))) {
+            throw new IllegalArgumentException(
+                    "Wrong number of column widths: " + columnWidths.length
+                    + "; expected " + (textTableBuilder.getNumColumns() + firstTableColumn)
+                    + " column widths"
+            );
+        }
+        for (final int columnWidth : columnWidths) {
+            if (columnWidth < 0) {
+                throw new IllegalArgumentException("column width cannot be negative: " + columnWidth);
+            }
+        }
+        this.columnWidths = columnWidths.clone();
+        numColumns = numTableColumns;
+        return this;
+    }
+
+    public int getMeasuredRows() {
+        return measuredRows;
+    }
+
+    /**
+     * Sets how many rows are held and measured before the top of the table is written, when
+     * column widths have not been declared. Rows after those are written as soon as they are
+     * given. With {@code 0}, columns are only as wide as their headers. The default is {@code 1}.
+     *
+     * @param measuredRows the number of rows to measure
+     *
+     * @return this instance
+     *
+     * @throws IllegalStateException if writing has started
+     */
+    @Nonnull
+    public TextTableWriter setMeasuredRows(final int measuredRows) {
+        if (measuredRows < 0) {
+            throw new IllegalArgumentException("measuredRows cannot be negative: " + measuredRows);
+        }
+        checkNotStarted();
+        this.measuredRows = measuredRows;
+        return this;
+    }
+
+    @Nullable
+    public Integer getRowNumWidth() {
+        return rowNumWidth;
+    }
+
+    /**
+     * Declares the width of the row number column when column widths are measured, instead of
+     * making it wide enough for any row number. Row numbers wider than this push the rest of the
+     * line to the right. This has no effect if row numbers are not shown or column widths are
+     * declared with {@link #setColumnWidths(int...)}.
+     *
+     * @param rowNumWidth the width of the row number column
+     *
+     * @return this instance
+     *
+     * @throws IllegalStateException if writing has started
+     */
+    @Nonnull
+    public TextTableWriter setRowNumWidth(final int rowNumWidth) {
+        if (rowNumWidth < 0) {
+            throw new IllegalArgumentException("rowNumWidth cannot be negative: " + rowNumWidth);
+        }
+        checkNotStarted();
+        this.rowNumWidth = rowNumWidth;
+        return this;
+    }
+
+    @Nonnull
+    public CellOverflow getCellOverflow() {
+        return cellOverflow;
+    }
+
+    /**
+     * Sets what is done with items that are wider than their column. {@link CellOverflow#OVERFLOW}
+     * writes the whole item, pushing the rest of the line to the right, and {@link
+     * CellOverflow#TRUNCATE} writes only as much of the item as fits. Row numbers are never
+     * truncated. The default is {@link CellOverflow#OVERFLOW}.
+     *
+     * @param cellOverflow what to do with items wider than their column
+     *
+     * @return this instance
+     *
+     * @throws IllegalStateException if writing has started
+     */
+    @Nonnull
+    public TextTableWriter setCellOverflow(@Nonnull final CellOverflow cellOverflow) {
+        if (cellOverflow == null) {
+            throw new IllegalArgumentException("cellOverflow cannot be null");
+        }
+        checkNotStarted();
+        this.cellOverflow = cellOverflow;
+        return this;
+    }
+
+    /*========================================================================
+     * ROW METHODS
+     *========================================================================*/
+
+    /**
+     * Writes a row, along with the top of the table if it has not been written. Rows given before
+     * the column widths are known are held until they are, and are written as soon as the last
+     * measured row is given.
+     *
+     * @param row the items of the row
+     *
+     * @return this instance
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     * @throws IllegalStateException if the writer is finished
+     */
+    @Nonnull
+    public TextTableWriter writeRow(@Nonnull final Collection<?> row) throws IOException {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        checkNotFinished();
+        checkNumColumns(row.size());
+        ToStringBuilder startedToStringBuilder = toStringBuilder;
+        if ((startedToStringBuilder == null) && (columnWidths == null)) {
+            if (measuredRowsBuffer.size() < measuredRows) {
+                measuredRowsColumnWidths.update(row);
+                measuredRowsBuffer.add(new ArrayList<Object>(row));
+                numRows++;
+                if (measuredRowsBuffer.size() == measuredRows) {
+                    // every measured row has been given, so there is no reason to hold them
+                    start();
+                }
+                return this;
+            }
+        }
+        if (startedToStringBuilder == null) {
+            startedToStringBuilder = start();
+        }
+        startedToStringBuilder.streamRow(row);
+        numRows++;
+        return this;
+    }
+
+    @Nonnull
+    public TextTableWriter writeRow(@Nonnull final Object... row) throws IOException {
+        return writeRow(objectArrayToCollection(row));
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Writes any rows still held for measuring and the bottom of the table. The appendable is not
+     * closed.
+     *
+     * @throws IOException if the appendable throws an {@link IOException}
+     * @throws IllegalStateException if the writer is already finished
+     */
+    public void finish() throws IOException {
+        checkNotFinished();
+        ToStringBuilder startedToStringBuilder = toStringBuilder;
+        if (startedToStringBuilder == null) {
+            startedToStringBuilder = start();
+        }
+        startedToStringBuilder.finishStreaming();
+        finished = true;
+    }
+
+}
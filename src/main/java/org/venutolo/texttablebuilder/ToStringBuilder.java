@@ -1,23 +1,51 @@
 package org.venutolo.texttablebuilder;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
 import java.text.NumberFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static org.venutolo.texttablebuilder.Alignment.LEFT;
-import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.Rows.checkRowSize;
 
 /**
+ * Renders tables. The options, storage, widths and lines it is given by builders, snapshots and
+ * layouts are their own state, which is only read here and never modified.
+ *
  * @author Rick Venutolo
  */
 final class ToStringBuilder {
 
     private static final int STRING_BUILDER_INITIAL_CAPACITY = 128;
 
-    private final StringBuilder stringBuilder = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+    private static final char LINE_SEPARATOR = '\n';
+
+    private static final char SPACE = ' ';
+
+    private static final char[] SPACES = repeatChar(SPACE, 64).toCharArray();
+
+    private static final int ROWS_PER_BLOCK = 1024;
+
+    private static final int BLOCKS_IN_FLIGHT_PER_PROCESSOR = 2;
+
+    private final StringBuilder lineBuilder = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+
+    private final StringBuilder primitiveBuilder = new StringBuilder();
 
     private final int numColumns;
 
@@ -31,95 +59,200 @@ final class ToStringBuilder {
 
     private final int repeatHeadersEveryXRows;
 
-    private final List<String> headerStrings;
+    private final TableStorage table;
+
+    private final int numRows;
+
+    // index of the first column that comes from the table, which is 1 if showing row numbers
+    private final int firstTableColumn;
+
+    private final List<Object> headers;
+
+    private final List<Alignment> headerAlignments;
 
-    private final List<List<String>> tableStrings;
+    private final List<Alignment> columnAlignments;
 
-    private final List<String> horizontalStrings;
+    private final String nullColumnReplacement;
+
+    @Nullable
+    private final NumberFormat rowNumFormat;
+
+    private final int[] columnWidths;
+
+    // lines that do not depend on the rows, each built once
+    private final TableLines tableLines;
+
+    private LineWriter lineWriter;
+
+    private boolean firstLine = true;
+
+    private boolean justPrintedHeader;
+
+    // headers are still measured when not shown, so that pages without them line up
+    private boolean showHeaders = true;
+
+    // only for streaming, where columns have fixed widths
+    private boolean truncateItems;
+
+    // only when the builder has a render listener
+    @Nullable
+    private RenderMetrics metrics;
 
     private ToStringBuilder(final TextTableBuilder textTableBuilder) {
-        final boolean showRowNums = textTableBuilder.getShowRowNums();
-        numColumns = textTableBuilder.getNumColumns() + (showRowNums ? 1 : 0);
-        boxDrawingCharacters = textTableBuilder.getBoxDrawingCharacters();
-        linePrepender = textTableBuilder.getLinePrepender();
-        lineAppender = textTableBuilder.getLineAppender();
-        repeatHeadersAtBottom = textTableBuilder.getRepeatHeadersAtBottom();
-        repeatHeadersEveryXRows = textTableBuilder.getRepeatHeadersEveryXRows();
-        final List<Object> headers = textTableBuilder.getHeaders();
-        final List<List<Object>> rows = textTableBuilder.getRows();
-        final List<Alignment> headerAlignments = textTableBuilder.getHeaderAlignments();
-        final List<Alignment> columnAlignments = textTableBuilder.getColumnAlignments();
-        // if alignments are empty, then populate with LEFT for defaults
-        ifEmptyPopulateWithLeft(headerAlignments, textTableBuilder.getNumColumns());
-        ifEmptyPopulateWithLeft(columnAlignments, textTableBuilder.getNumColumns());
-        final String nullColumnReplacement = textTableBuilder.getNullColumnReplacement();
-        // if showing row number, add column items for row numbers
-        if (showRowNums) {
-            headerAlignments.add(0, RIGHT);
-            columnAlignments.add(0, RIGHT);
-            addRowNumColumnItems(textTableBuilder, headers, rows);
-        }
-        // determine widths of columns to be used when padding strings
-        final int[] columnWidths = getColumnWidths(
-                numColumns,
-                nullColumnReplacement,
-                headers,
-                rows
+        // read rows straight from storage so that primitive items are never boxed
+        this(
+                textTableBuilder,
+                textTableBuilder.getTableStorage(),
+                textTableBuilder.getNumColumns(),
+                getMeasuredColumnWidths(textTableBuilder),
+                textTableBuilder.getTableLines()
         );
-        // generate strings for headers, rows, and horizontal strings
-        headerStrings = headers.isEmpty()
-                        ? null
-                        : getPaddedAndAlignedRowStrings(
-                                columnWidths,
-                                nullColumnReplacement,
-                                headers,
-                                headerAlignments
-                        );
-        tableStrings = getPaddedAndAlignedTableStrings(
-                columnWidths,
-                nullColumnReplacement,
-                rows,
-                columnAlignments
+        textTableBuilder.setTableLines(tableLines);
+    }
+
+    private ToStringBuilder(@Nonnull final TextTable textTable) {
+        // a snapshot's columns were measured when it was built, so only headers are measured
+        this(
+                textTable.getSnapshot(),
+                textTable.getSnapshot().getTableStorage(),
+                textTable.getNumColumns(),
+                textTable.getMeasuredColumnWidths(),
+                textTable.getTableLines()
         );
-        horizontalStrings = getHorizontalStrings(
-                columnWidths,
-                boxDrawingCharacters.getHorizontal()
+        textTable.setTableLines(tableLines);
+    }
+
+    private ToStringBuilder(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final TableStorage table,
+            final int numTableColumns,
+            @Nonnull final int[] measuredColumnWidths,
+            @Nullable final TableLines reusableTableLines
+    ) {
+        this(
+                textTableBuilder,
+                table,
+                ColumnLayout.compile(textTableBuilder, numTableColumns),
+                measuredColumnWidths,
+                reusableTableLines,
+                cloneRowNumFormat(textTableBuilder.getRowNumFormat())
         );
     }
 
-    private void addRowNumColumnItems(
-            final TextTableBuilder textTableBuilder,
-            final List<Object> headers,
-            final Iterable<List<Object>> rows
+    private ToStringBuilder(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final TableStorage table,
+            @Nonnull final ColumnLayout columnLayout,
+            @Nonnull final int[] measuredColumnWidths,
+            @Nullable final TableLines reusableTableLines,
+            @Nullable final NumberFormat rowNumFormat
     ) {
-        // TODO decrease complexity
-        final String rowNumHeader = textTableBuilder.getRowNumHeader();
-        final boolean headersWereEmpty = headers.isEmpty();
-        if (!headersWereEmpty || (rowNumHeader.length() != 0)) {
-            headers.add(0, rowNumHeader);
-            // if headers were empty, need to populate other headers with empty strings
-            if (headersWereEmpty) {
-                for (int i = 1; i < numColumns; i++) {
-                    headers.add("");
-                }
-            }
+        assert textTableBuilder != null;
+        assert table != null;
+        assert columnLayout != null;
+        assert measuredColumnWidths != null;
+        firstTableColumn = columnLayout.getFirstTableColumn();
+        numColumns = columnLayout.getNumColumns();
+        assert measuredColumnWidths.length == numColumns;
+        boxDrawingCharacters = textTableBuilder.getBoxDrawingCharacters();
+        linePrepender = textTableBuilder.getLinePrepender();
+        lineAppender = textTableBuilder.getLineAppender();
+        repeatHeadersAtBottom = textTableBuilder.getRepeatHeadersAtBottom();
+        repeatHeadersEveryXRows = textTableBuilder.getRepeatHeadersEveryXRows();
+        this.table = table;
+        numRows = table.getNumRows();
+        headers = columnLayout.getHeaders();
+        headerAlignments = columnLayout.getHeaderAlignments();
+        columnAlignments = columnLayout.getColumnAlignments();
+        nullColumnReplacement = textTableBuilder.getNullColumnReplacement();
+        this.rowNumFormat = rowNumFormat;
+        // determine widths of columns to be used when padding strings; row numbers, items and
+        // headers have already been measured
+        columnWidths = Arrays.copyOf(measuredColumnWidths, numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            updateColumnMaxWidth(columnWidths, i, columnLayout.getHeaderWidth(i));
         }
-        int rowNum = 1;
-        final NumberFormat rowNumFormat = textTableBuilder.getRowNumFormat();
-        for (final List<Object> row : rows) {
-            row.add(0, (rowNumFormat == null) ? rowNum : rowNumFormat.format(rowNum));
-            rowNum++;
+        // lines that do not depend on the rows are reused from an earlier render if it had the
+        // same options and column widths; row cells are padded directly into each line as it is
+        // emitted so that only one line is held in memory at a time
+        tableLines = ((reusableTableLines != null)
+                      && reusableTableLines.hasColumnWidths(columnWidths))
+                     ? reusableTableLines
+                     : buildTableLines();
+    }
+
+    private ToStringBuilder(@Nonnull final ToStringBuilder prototype) {
+        // shares everything that is only read while rendering rows, for rendering a block of rows
+        // on another thread
+        assert prototype != null;
+        numColumns = prototype.numColumns;
+        boxDrawingCharacters = prototype.boxDrawingCharacters;
+        linePrepender = prototype.linePrepender;
+        lineAppender = prototype.lineAppender;
+        repeatHeadersAtBottom = prototype.repeatHeadersAtBottom;
+        repeatHeadersEveryXRows = prototype.repeatHeadersEveryXRows;
+        table = prototype.table;
+        numRows = prototype.numRows;
+        firstTableColumn = prototype.firstTableColumn;
+        headers = prototype.headers;
+        headerAlignments = prototype.headerAlignments;
+        columnAlignments = prototype.columnAlignments;
+        nullColumnReplacement = prototype.nullColumnReplacement;
+        rowNumFormat = cloneRowNumFormat(prototype.rowNumFormat);
+        columnWidths = prototype.columnWidths;
+        tableLines = prototype.tableLines;
+        showHeaders = prototype.showHeaders;
+        truncateItems = prototype.truncateItems;
+        firstLine = false;
+    }
+
+    @Nonnull
+    private static ToStringBuilder forBuilder(@Nonnull final TextTableBuilder textTableBuilder) {
+        assert textTableBuilder != null;
+        final RenderListener renderListener = textTableBuilder.getRenderListener();
+        if (renderListener == null) {
+            return new ToStringBuilder(textTableBuilder);
         }
+        // measuring is everything done before the first line is written
+        final RenderMetrics renderMetrics = new RenderMetrics(renderListener);
+        final ToStringBuilder toStringBuilder = new ToStringBuilder(textTableBuilder);
+        renderMetrics.measured();
+        toStringBuilder.metrics = renderMetrics;
+        return toStringBuilder;
+    }
+
+    @Nonnull
+    private LineWriter countChars(@Nonnull final LineWriter lineWriter) {
+        assert lineWriter != null;
+        return (metrics == null) ? lineWriter : new CountingLineWriter(lineWriter);
     }
 
-    private static String leftPad(@Nonnull final String s, final int length) {
-        assert s != null;
-        return String.format("%1$" + length + "s", s);
+    private void finishMetrics(final int numRenderedRows) {
+        if (metrics != null) {
+            final CountingLineWriter countingLineWriter = (CountingLineWriter) lineWriter;
+            metrics.emitted(
+                    numRenderedRows,
+                    (long) numRenderedRows * (numColumns - firstTableColumn),
+                    countingLineWriter.numChars,
+                    countingLineWriter.getNumBytes()
+            );
+        }
     }
 
-    private static String rightPad(@Nonnull final String s, final int length) {
-        assert s != null;
-        return String.format("%1$-" + length + "s", s);
+    @Nonnull
+    static int[] getMeasuredColumnWidths(@Nonnull final TextTableBuilder textTableBuilder) {
+        assert textTableBuilder != null;
+        // widths of the items in the rows are kept up to date as rows are added
+        final int firstTableColumn = textTableBuilder.getShowRowNums() ? 1 : 0;
+        final int[] measuredColumnWidths =
+                new int[textTableBuilder.getNumColumns() + firstTableColumn];
+        if (firstTableColumn != 0) {
+            measuredColumnWidths[0] = textTableBuilder.getRowNumWidth();
+        }
+        for (int i = firstTableColumn; i < measuredColumnWidths.length; i++) {
+            measuredColumnWidths[i] = textTableBuilder.getRowsColumnWidth(i - firstTableColumn);
+        }
+        return measuredColumnWidths;
     }
 
     private static String repeatChar(final char c, final int times) {
@@ -128,124 +261,60 @@ final class ToStringBuilder {
         return new String(chars);
     }
 
-    private static void ifEmptyPopulateWithLeft(
-            @Nonnull final Collection<Alignment> alignments,
-            final int numColumns
-    ) {
-        if (alignments.isEmpty()) {
-            for (int i = 0; i < numColumns; i++) {
-                alignments.add(LEFT);
-            }
-        }
-    }
-
-    private static void checkAndUpdateColumnMaxWidths(
+    private static void updateColumnMaxWidth(
             @Nonnull final int[] columnWidths,
-            @Nonnull final String nullColumnReplacement,
-            @Nonnull final List<Object> row
+            final int column,
+            final int columnWidth
     ) {
-        assert columnWidths != null;
-        assert nullColumnReplacement != null;
-        assert row != null;
-        assert columnWidths.length == row.size();
-        for (int i = 0; i < columnWidths.length; i++) {
-            final int currentMaxWidth = columnWidths[i];
-            final Object columnObject = row.get(i);
-            final String columnString = (columnObject == null)
-                                        ? nullColumnReplacement
-                                        : columnObject.toString();
-            final int columnWidth = columnString.length();
-            if (columnWidth > currentMaxWidth) {
-                columnWidths[i] = columnWidth;
-            }
+        if (columnWidth > columnWidths[column]) {
+            columnWidths[column] = columnWidth;
         }
     }
 
-    private static int[] getColumnWidths(
-            final int numColumns,
-            @Nonnull final String nullColumnReplacement,
-            @Nonnull final List<Object> headers,
-            @Nonnull final Iterable<List<Object>> table
-    ) {
-        assert numColumns >= 0;
-        assert nullColumnReplacement != null;
-        assert headers != null;
-        assert table != null;
-        final int[] columnWidths = new int[numColumns];
-        if (!headers.isEmpty()) {
-            checkAndUpdateColumnMaxWidths(columnWidths, nullColumnReplacement, headers);
-        }
-        for (final List<Object> row : table) {
-            checkAndUpdateColumnMaxWidths(columnWidths, nullColumnReplacement, row);
-        }
-        return columnWidths;
+    @Nullable
+    private static NumberFormat cloneRowNumFormat(@Nullable final NumberFormat rowNumFormat) {
+        // NumberFormat is not thread-safe, and the same options may be rendered by several
+        // threads, so each instance has its own
+        return (rowNumFormat == null) ? null : (NumberFormat) rowNumFormat.clone();
     }
 
-    private static String getPaddedAndAlignedColumnString(
-            @Nonnull final String columnString,
-            @Nonnull final Alignment alignment,
-            final int columnWidth
-    ) {
-        assert columnString != null;
-        assert alignment != null;
-        assert columnWidth >= 0;
-        final String columnStringPlusSpaces = " " + columnString + " ";
-        final int columnWidthWithPadding = columnWidth + 2;
-        return (alignment == LEFT)
-               ? rightPad(columnStringPlusSpaces, columnWidthWithPadding)
-               : leftPad(columnStringPlusSpaces, columnWidthWithPadding);
+    private static int getNumDigits(final int positiveInt) {
+        assert positiveInt > 0;
+        int numDigits = 1;
+        for (int remaining = positiveInt / 10; remaining != 0; remaining /= 10) {
+            numDigits++;
+        }
+        return numDigits;
     }
 
-    private static List<String> getPaddedAndAlignedRowStrings(
-            @Nonnull final int[] columnWidths,
-            @Nonnull final String nullColumnReplacement,
-            @Nonnull final List<Object> row,
-            @Nonnull final List<Alignment> alignments
+    static int getRowNumWidth(
+            @Nullable final NumberFormat rowNumFormat,
+            final int firstRow,
+            final int lastRow
     ) {
-        assert columnWidths != null;
-        assert nullColumnReplacement != null;
-        assert row != null;
-        assert alignments != null;
-        assert columnWidths.length == row.size();
-        assert alignments.size() == row.size();
-        final List<String> paddedAndAlignedRowStrings = new ArrayList<String>(row.size());
-        for (int i = 0; i < columnWidths.length; i++) {
-            final Object columnObject = row.get(i);
-            final String columnString = (columnObject == null)
-                                        ? nullColumnReplacement
-                                        : columnObject.toString();
-            final int columnWidth = columnWidths[i];
-            final String paddedAndAlignedColumnString = getPaddedAndAlignedColumnString(
-                    columnString,
-                    alignments.get(i),
-                    columnWidth
-            );
-            paddedAndAlignedRowStrings.add(paddedAndAlignedColumnString);
+        if (firstRow >= lastRow) {
+            return 0;
+        }
+        if (rowNumFormat == null) {
+            // the last row number has the most digits, so no row number needs to be created
+            return getNumDigits(lastRow);
+        }
+        int rowNumWidth = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+            rowNumWidth = Math.max(rowNumWidth, rowNumFormat.format(row + 1).length());
         }
-        return paddedAndAlignedRowStrings;
+        return rowNumWidth;
     }
 
-    private static List<List<String>> getPaddedAndAlignedTableStrings(
-            @Nonnull final int[] columnWidths,
-            @Nonnull final String nullColumnReplacement,
-            @Nonnull final Collection<List<Object>> table,
-            @Nonnull final List<Alignment> alignments
-    ) {
-        assert columnWidths != null;
-        assert nullColumnReplacement != null;
-        assert table != null;
-        assert alignments != null;
-        final List<List<String>> paddedAndAlignedTableStrings = new ArrayList<List<String>>(table.size());
-        for (final List<Object> row : table) {
-            final List<String> paddedAndAlignedRowStrings = getPaddedAndAlignedRowStrings(
-                    columnWidths,
-                    nullColumnReplacement,
-                    row,
-                    alignments
-            );
-            paddedAndAlignedTableStrings.add(paddedAndAlignedRowStrings);
+    @Nonnull
+    private CharSequence getRowNumString(final int row) {
+        final int rowNum = row + 1;
+        if (rowNumFormat == null) {
+            // same text as Integer.toString(int), without creating a String
+            primitiveBuilder.setLength(0);
+            return primitiveBuilder.append(rowNum);
         }
-        return paddedAndAlignedTableStrings;
+        return rowNumFormat.format(rowNum);
     }
 
     private static List<String> getHorizontalStrings(
@@ -261,112 +330,907 @@ final class ToStringBuilder {
         return horizontalStrings;
     }
 
-    private void appendLine(final String line) {
-        stringBuilder.append(linePrepender).append(line).append(lineAppender).append('\n');
+    private void appendLine() throws IOException {
+        lineBuilder.append(lineAppender);
+        lineWriter.writeLine(lineBuilder);
+    }
+
+    private boolean takeFirstLine() {
+        // every line but the first starts with a line separator
+        if (firstLine) {
+            firstLine = false;
+            return true;
+        }
+        return false;
+    }
+
+    private void startLine() {
+        lineBuilder.setLength(0);
+        if (!takeFirstLine()) {
+            lineBuilder.append(LINE_SEPARATOR);
+        }
+        lineBuilder.append(linePrepender);
+    }
+
+    @Nonnull
+    private char[] getLineChars() {
+        final char[] lineChars = new char[lineBuilder.length()];
+        lineBuilder.getChars(0, lineChars.length, lineChars, 0);
+        return lineChars;
     }
 
-    private String getLine(
+    @Nonnull
+    private char[] buildBorderLine(
             final char leftChar,
             final char interiorChar,
             final char rightChar,
-            @Nonnull final List<String> strings
+            @Nonnull final List<String> horizontalStrings
     ) {
-        assert strings != null;
-        final StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(leftChar);
+        assert horizontalStrings != null;
+        lineBuilder.setLength(0);
+        lineBuilder.append(LINE_SEPARATOR);
+        lineBuilder.append(linePrepender);
+        lineBuilder.append(leftChar);
         for (int i = 0; i < numColumns; i++) {
             if (i != 0) {
-                stringBuilder.append(interiorChar);
+                lineBuilder.append(interiorChar);
             }
-            stringBuilder.append(strings.get(i));
+            lineBuilder.append(horizontalStrings.get(i));
         }
-        stringBuilder.append(rightChar);
-        return stringBuilder.toString();
+        lineBuilder.append(rightChar);
+        lineBuilder.append(lineAppender);
+        return getLineChars();
     }
 
-    private String getTopLine() {
-        return getLine(
-                boxDrawingCharacters.getTopLeftCorner(),
-                boxDrawingCharacters.getTopIntersect(),
-                boxDrawingCharacters.getTopRightCorner(),
-                horizontalStrings
-        );
+    @Nonnull
+    private char[] buildHeaderLine() {
+        assert columnWidths.length == headers.size();
+        assert headerAlignments.size() == headers.size();
+        final char vertical = boxDrawingCharacters.getVertical();
+        lineBuilder.setLength(0);
+        lineBuilder.append(LINE_SEPARATOR);
+        lineBuilder.append(linePrepender);
+        lineBuilder.append(vertical);
+        for (int i = 0; i < numColumns; i++) {
+            if (i != 0) {
+                lineBuilder.append(vertical);
+            }
+            // headers were replaced with their strings when the column layout was compiled
+            final String columnString = (String) headers.get(i);
+            appendPaddedAndAlignedCell(columnString, headerAlignments.get(i), columnWidths[i]);
+        }
+        lineBuilder.append(vertical);
+        lineBuilder.append(lineAppender);
+        return getLineChars();
     }
 
-    private String getInteriorLine() {
-        return getLine(
-                boxDrawingCharacters.getLeftIntersect(),
-                boxDrawingCharacters.getMiddleIntersect(),
-                boxDrawingCharacters.getRightIntersect(),
-                horizontalStrings
+    @Nonnull
+    private TableLines buildTableLines() {
+        final List<String> horizontalStrings = getHorizontalStrings(
+                columnWidths,
+                boxDrawingCharacters.getHorizontal()
+        );
+        return new TableLines(
+                columnWidths,
+                buildBorderLine(
+                        boxDrawingCharacters.getTopLeftCorner(),
+                        boxDrawingCharacters.getTopIntersect(),
+                        boxDrawingCharacters.getTopRightCorner(),
+                        horizontalStrings
+                ),
+                buildBorderLine(
+                        boxDrawingCharacters.getLeftIntersect(),
+                        boxDrawingCharacters.getMiddleIntersect(),
+                        boxDrawingCharacters.getRightIntersect(),
+                        horizontalStrings
+                ),
+                buildBorderLine(
+                        boxDrawingCharacters.getBottomLeftCorner(),
+                        boxDrawingCharacters.getBottomIntersect(),
+                        boxDrawingCharacters.getBottomRightCorner(),
+                        horizontalStrings
+                ),
+                headers.isEmpty() ? null : buildHeaderLine()
         );
     }
 
-    private String getBottomLine() {
-        return getLine(
-                boxDrawingCharacters.getBottomLeftCorner(),
-                boxDrawingCharacters.getBottomIntersect(),
-                boxDrawingCharacters.getBottomRightCorner(),
-                horizontalStrings
-        );
+    private void appendStaticLine(@Nonnull final char[] line) throws IOException {
+        assert line != null;
+        assert line[0] == LINE_SEPARATOR;
+        // the line separator, prepender and appender are already part of the line
+        final int start = takeFirstLine() ? 1 : 0;
+        lineWriter.writeLine(line, start, line.length - start);
     }
 
-    private String getRowLine(@Nonnull final List<String> strings) {
-        assert strings != null;
-        return getLine(
-                boxDrawingCharacters.getVertical(),
-                boxDrawingCharacters.getVertical(),
-                boxDrawingCharacters.getVertical(),
-                strings
-        );
+    private void appendTopLine() throws IOException {
+        appendStaticLine(tableLines.getTopLine());
+    }
+
+    private void appendInteriorLine() throws IOException {
+        appendStaticLine(tableLines.getInteriorLine());
+    }
+
+    private void appendBottomLine() throws IOException {
+        appendStaticLine(tableLines.getBottomLine());
+    }
+
+    private void appendSpaces(final int times) {
+        int remaining = times;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, SPACES.length);
+            lineBuilder.append(SPACES, 0, count);
+            remaining -= count;
+        }
+    }
+
+    private void appendPaddedAndAlignedCell(
+            @Nonnull final CharSequence columnString,
+            @Nonnull final Alignment alignment,
+            final int columnWidth
+    ) {
+        assert columnString != null;
+        assert alignment != null;
+        assert columnWidth >= 0;
+        // strings longer than the column width are not truncated, same as String.format
+        final int padding = columnWidth - columnString.length();
+        lineBuilder.append(SPACE);
+        if (alignment != LEFT) {
+            appendSpaces(padding);
+        }
+        lineBuilder.append(columnString);
+        if (alignment == LEFT) {
+            appendSpaces(padding);
+        }
+        lineBuilder.append(SPACE);
+    }
+
+    @Nonnull
+    private CharSequence getColumnString(final int row, final int column) {
+        if (column < firstTableColumn) {
+            return getRowNumString(row);
+        }
+        final int tableColumn = column - firstTableColumn;
+        // primitive items are written to a reusable buffer instead of being boxed
+        primitiveBuilder.setLength(0);
+        if (table.appendIfPrimitive(row, tableColumn, primitiveBuilder)) {
+            return primitiveBuilder;
+        }
+        final Object columnObject = table.get(row, tableColumn);
+        return (columnObject == null) ? nullColumnReplacement : columnObject.toString();
+    }
+
+    @Nonnull
+    private static CharSequence truncate(@Nonnull final CharSequence columnString, final int width) {
+        assert columnString != null;
+        if (columnString.length() <= width) {
+            return columnString;
+        }
+        // do not split a surrogate pair
+        int end = width;
+        if ((end > 0) && Character.isHighSurrogate(columnString.charAt(end - 1))) {
+            end--;
+        }
+        return columnString.subSequence(0, end);
+    }
+
+    private void appendRowLine(final int row) throws IOException {
+        final char vertical = boxDrawingCharacters.getVertical();
+        startLine();
+        lineBuilder.append(vertical);
+        for (int i = 0; i < numColumns; i++) {
+            if (i != 0) {
+                lineBuilder.append(vertical);
+            }
+            final CharSequence columnString = getColumnString(row, i);
+            appendPaddedAndAlignedCell(
+                    (truncateItems && (i >= firstTableColumn))
+                    ? truncate(columnString, columnWidths[i])
+                    : columnString,
+                    columnAlignments.get(i),
+                    columnWidths[i]
+            );
+        }
+        lineBuilder.append(vertical);
+        appendLine();
+    }
+
+    private void appendHeaderLine() throws IOException {
+        final char[] headerLine = tableLines.getHeaderLine();
+        assert headerLine != null;
+        appendStaticLine(headerLine);
+    }
+
+    private boolean hasHeaders() {
+        return showHeaders && !headers.isEmpty();
+    }
+
+    private void appendHead() throws IOException {
+        appendTopLine();
+        if (hasHeaders()) {
+            appendHeaderLine();
+            appendInteriorLine();
+        }
+    }
+
+    private boolean isRepeatingHeaders() {
+        return hasHeaders() && (repeatHeadersEveryXRows != 0);
+    }
+
+    private boolean isHeaderRepeatedBefore(final int row) {
+        return isRepeatingHeaders() && (row != 0) && ((row % repeatHeadersEveryXRows) == 0);
+    }
+
+    private void appendRows(final int firstRow) throws IOException {
+        appendRows(firstRow, numRows);
+    }
+
+    private void appendRows(final int firstRow, final int lastRow) throws IOException {
+        for (int row = firstRow; row < lastRow; row++) {
+            appendRowAndRepeatedHeaders(row);
+        }
+    }
+
+    private void appendRowAndRepeatedHeaders(final int row) throws IOException {
+        if (justPrintedHeader) {
+            appendInteriorLine();
+        }
+        appendRowLine(row);
+        if (isRepeatingHeaders()) {
+            final int rowNum = row + 1;
+            if ((rowNum % repeatHeadersEveryXRows) == 0) {
+                appendInteriorLine();
+                appendHeaderLine();
+                // can't just append interior line after repeating headers
+                // in case it ends up being the bottom headers
+                justPrintedHeader = true;
+            } else {
+                justPrintedHeader = false;
+            }
+        }
+    }
+
+    private void appendTail() throws IOException {
+        if (hasHeaders() && repeatHeadersAtBottom && !justPrintedHeader) {
+            appendInteriorLine();
+            appendHeaderLine();
+        }
+        appendBottomLine();
+    }
+
+    private void render(@Nonnull final LineWriter lineWriter) throws IOException {
+        assert lineWriter != null;
+        this.lineWriter = countChars(lineWriter);
+        appendHead();
+        appendRows(0);
+        appendTail();
+        finishMetrics(numRows);
+    }
+
+    private void renderSource(
+            @Nonnull final LineWriter lineWriter,
+            @Nonnull final TableSource tableSource
+    ) throws IOException {
+        assert lineWriter != null;
+        assert tableSource != null;
+        this.lineWriter = lineWriter;
+        final Iterator<? extends Collection<?>> rows = tableSource.openRows();
+        try {
+            appendHead();
+            while (rows.hasNext()) {
+                streamRow(rows.next());
+            }
+            appendTail();
+        } finally {
+            closeIfCloseable(rows);
+        }
     }
 
-    private void buildToString() {
-        // TODO decrease complexity
-        appendLine(getTopLine());
-        if (headerStrings != null) {
-            appendLine(getRowLine(headerStrings));
-            appendLine(getInteriorLine());
-        }
-        final boolean checkForRepeatingHeader =
-                (headerStrings != null) && (repeatHeadersEveryXRows != 0);
-        int rowNum = 1;
-        boolean justPrintedHeader = false;
-        for (final List<String> rowString : tableStrings) {
-            if (justPrintedHeader) {
-                appendLine(getInteriorLine());
+    @Nonnull
+    private static Collection<?> checkSourceRow(
+            @Nullable final Collection<?> row,
+            final int numTableColumns
+    ) {
+        if (row == null) {
+            throw new IllegalArgumentException("row cannot be null");
+        }
+        checkRowSize(row.size(), numTableColumns);
+        return row;
+    }
+
+    private static void closeIfCloseable(@Nonnull final Iterator<?> rows) throws IOException {
+        assert rows != null;
+        if (rows instanceof Closeable) {
+            ((Closeable) rows).close();
+        }
+    }
+
+    private void renderPage(
+            @Nonnull final LineWriter lineWriter,
+            final int firstRow,
+            final int lastRow,
+            final boolean showHeaders
+    ) throws IOException {
+        assert lineWriter != null;
+        assert (firstRow >= 0) && (firstRow <= lastRow) && (lastRow <= numRows);
+        this.lineWriter = countChars(lineWriter);
+        this.showHeaders = showHeaders;
+        appendHead();
+        // headers are repeated where they would be in the whole table, except that they are
+        // not repeated before the first row since the page starts with headers
+        appendRows(firstRow, lastRow);
+        appendTail();
+        finishMetrics(lastRow - firstRow);
+    }
+
+    private void renderInParallel(
+            @Nonnull final LineWriter lineWriter,
+            @Nonnull final ExecutorService executorService
+    ) throws IOException {
+        assert lineWriter != null;
+        assert executorService != null;
+        this.lineWriter = countChars(lineWriter);
+        appendHead();
+        // only a few blocks are rendered ahead of the one being written, so that a large table is
+        // not held in memory as rendered blocks
+        final int maxBlocksInFlight = BLOCKS_IN_FLIGHT_PER_PROCESSOR
+                                      * Runtime.getRuntime().availableProcessors();
+        final Deque<Future<StringBuilder>> blocks = new ArrayDeque<Future<StringBuilder>>();
+        int nextFirstRow = 0;
+        try {
+            while ((blocks.size() < maxBlocksInFlight) && (nextFirstRow < numRows)) {
+                blocks.addLast(submitBlock(executorService, nextFirstRow));
+                nextFirstRow += ROWS_PER_BLOCK;
             }
-            appendLine(getRowLine(rowString));
-            if (checkForRepeatingHeader) {
-                if ((rowNum % repeatHeadersEveryXRows) == 0) {
-                    appendLine(getInteriorLine());
-                    appendLine(getRowLine(headerStrings));
-                    // can't just append interior line after repeating headers
-                    // in case it ends up being the bottom headers
-                    justPrintedHeader = true;
-                } else {
-                    justPrintedHeader = false;
+            // blocks are written in order as they complete, so output is the same as rendering
+            // the rows one after another
+            while (!blocks.isEmpty()) {
+                final StringBuilder blockLines = getBlockLines(blocks.removeFirst());
+                if (nextFirstRow < numRows) {
+                    blocks.addLast(submitBlock(executorService, nextFirstRow));
+                    nextFirstRow += ROWS_PER_BLOCK;
                 }
+                this.lineWriter.writeLine(blockLines);
+            }
+        } finally {
+            // does nothing if every block was written, stops the rest if a block failed
+            for (final Future<StringBuilder> block : blocks) {
+                block.cancel(true);
             }
-            rowNum++;
         }
-        if ((headerStrings != null) && repeatHeadersAtBottom && !justPrintedHeader) {
-            appendLine(getInteriorLine());
-            appendLine(getRowLine(headerStrings));
+        justPrintedHeader = isHeaderRepeatedBefore(numRows);
+        appendTail();
+        finishMetrics(numRows);
+    }
+
+    @Nonnull
+    private Future<StringBuilder> submitBlock(
+            @Nonnull final ExecutorService executorService,
+            final int firstRow
+    ) {
+        assert executorService != null;
+        assert firstRow < numRows;
+        final int lastRow = Math.min(firstRow + ROWS_PER_BLOCK, numRows);
+        return executorService.submit(new RowBlock(this, firstRow, lastRow));
+    }
+
+    @Nonnull
+    private static StringBuilder getBlockLines(@Nonnull final Future<StringBuilder> block)
+            throws IOException {
+        assert block != null;
+        try {
+            return block.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException interruptedIOException =
+                    new InterruptedIOException("interrupted while rendering");
+            interruptedIOException.initCause(e);
+            throw interruptedIOException;
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
         }
-        appendLine(getBottomLine());
     }
 
-    private String getToString() {
-        buildToString();
-        // remove last newline
-        stringBuilder.setLength(stringBuilder.length() - 1);
+    @Nonnull
+    private String renderIncrementally(@Nonnull final IncrementalRender incrementalRender)
+            throws IOException {
+        assert incrementalRender != null;
+        assert incrementalRender.getNumRows() <= numRows;
+        final StringBuilder body = incrementalRender.getBody();
+        lineWriter = new AppendableLineWriter(body);
+        final int firstRow;
+        if (Arrays.equals(columnWidths, incrementalRender.getColumnWidths())) {
+            // lines already rendered are still valid, so only render the rows added since
+            firstRow = incrementalRender.getNumRows();
+            firstLine = body.length() == 0;
+            justPrintedHeader = incrementalRender.getJustPrintedHeader();
+        } else {
+            // a column is wider than when the body was rendered, so render every line again
+            body.setLength(0);
+            firstRow = 0;
+            appendHead();
+        }
+        appendRows(firstRow);
+        incrementalRender.update(numRows, columnWidths, justPrintedHeader);
+        // the bottom headers and bottom line are rendered after a copy of the body, since they
+        // have to move down when more rows are appended
+        final StringBuilder stringBuilder =
+                new StringBuilder(body.length() + STRING_BUILDER_INITIAL_CAPACITY);
+        stringBuilder.append(body);
+        lineWriter = new AppendableLineWriter(stringBuilder);
+        appendTail();
+        if (metrics != null) {
+            // lines rendered by earlier calls are part of the output, but were not rendered again
+            metrics.emitted(
+                    numRows - firstRow,
+                    (long) (numRows - firstRow) * (numColumns - firstTableColumn),
+                    stringBuilder.length(),
+                    RenderStats.UNKNOWN
+            );
+        }
         return stringBuilder.toString();
     }
 
+    @Nonnull
     public static String getToStringFor(@Nonnull final TextTableBuilder textTableBuilder) {
         assert textTableBuilder != null;
-        return new ToStringBuilder(textTableBuilder).getToString();
+        final StringBuilder stringBuilder = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+        try {
+            forBuilder(textTableBuilder).render(new AppendableLineWriter(stringBuilder));
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    @Nonnull
+    public static String getToStringFor(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final IncrementalRender incrementalRender
+    ) {
+        assert textTableBuilder != null;
+        assert incrementalRender != null;
+        try {
+            return forBuilder(textTableBuilder).renderIncrementally(incrementalRender);
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nonnull
+    public static String getToStringFor(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final ExecutorService executorService
+    ) {
+        assert textTableBuilder != null;
+        assert executorService != null;
+        final StringBuilder stringBuilder = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+        try {
+            forBuilder(textTableBuilder).renderInParallel(
+                    new AppendableLineWriter(stringBuilder),
+                    executorService
+            );
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException, so rendering was interrupted
+            throw new IllegalStateException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    public static void render(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final Appendable appendable,
+            @Nonnull final ExecutorService executorService
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert appendable != null;
+        assert executorService != null;
+        forBuilder(textTableBuilder).renderInParallel(
+                new AppendableLineWriter(appendable),
+                executorService
+        );
+    }
+
+    public static void render(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final TableSource tableSource,
+            @Nullable final Integer expectedNumTableColumns,
+            @Nonnull final Appendable appendable
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert tableSource != null;
+        assert appendable != null;
+        // first pass over the rows measures them
+        final ColumnWidths itemWidths = new ColumnWidths();
+        int numTableColumns = (expectedNumTableColumns == null) ? -1 : expectedNumTableColumns;
+        int numRows = 0;
+        final Iterator<? extends Collection<?>> rows = tableSource.openRows();
+        try {
+            while (rows.hasNext()) {
+                final Collection<?> row = rows.next();
+                if (numTableColumns == -1) {
+                    // without headers or rows in the builder, the first row sets the number of
+                    // columns
+                    numTableColumns = (row == null) ? 0 : row.size();
+                }
+                itemWidths.update(checkSourceRow(row, numTableColumns));
+                numRows++;
+            }
+        } finally {
+            closeIfCloseable(rows);
+        }
+        render(
+                textTableBuilder,
+                tableSource,
+                getMeasuredColumnWidths(
+                        textTableBuilder,
+                        textTableBuilder.getRowNumFormat(),
+                        itemWidths,
+                        Math.max(numTableColumns, 0),
+                        numRows
+                ),
+                appendable
+        );
+    }
+
+    @Nonnull
+    private static int[] getMeasuredColumnWidths(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nullable final NumberFormat rowNumFormat,
+            @Nonnull final ColumnWidths itemWidths,
+            final int numTableColumns,
+            final int numRows
+    ) {
+        assert textTableBuilder != null;
+        assert itemWidths != null;
+        // for rows that are not stored in the builder, which have been measured separately
+        final int firstTableColumn = textTableBuilder.getShowRowNums() ? 1 : 0;
+        final int[] measuredColumnWidths = new int[numTableColumns + firstTableColumn];
+        if (firstTableColumn != 0) {
+            measuredColumnWidths[0] = getRowNumWidth(rowNumFormat, 0, numRows);
+        }
+        for (int i = firstTableColumn; i < measuredColumnWidths.length; i++) {
+            measuredColumnWidths[i] = itemWidths.getWidth(
+                    i - firstTableColumn,
+                    textTableBuilder.getNullColumnReplacement()
+            );
+        }
+        return measuredColumnWidths;
+    }
+
+    public static void render(
+            @Nonnull final TableLayout tableLayout,
+            @Nonnull final Collection<? extends Collection<?>> rows,
+            @Nonnull final Appendable appendable
+    ) throws IOException {
+        assert tableLayout != null;
+        assert rows != null;
+        assert appendable != null;
+        final TextTableBuilder options = tableLayout.getOptions();
+        // every row is checked and measured before anything is appended
+        final ColumnWidths itemWidths = new ColumnWidths();
+        final int layoutNumColumns = tableLayout.getNumColumns();
+        int numTableColumns = (layoutNumColumns == 0) ? -1 : layoutNumColumns;
+        for (final Collection<?> row : rows) {
+            if (numTableColumns == -1) {
+                // without headers, the first row sets the number of columns
+                numTableColumns = (row == null) ? 0 : row.size();
+            }
+            itemWidths.update(checkSourceRow(row, numTableColumns));
+        }
+        numTableColumns = Math.max(numTableColumns, 0);
+        // the same format is used to measure and to write row numbers
+        final NumberFormat rowNumFormat = cloneRowNumFormat(options.getRowNumFormat());
+        final ToStringBuilder toStringBuilder = new ToStringBuilder(
+                options,
+                new CurrentRowTableStorage(numTableColumns),
+                tableLayout.getColumnLayout(numTableColumns),
+                getMeasuredColumnWidths(
+                        options,
+                        rowNumFormat,
+                        itemWidths,
+                        numTableColumns,
+                        rows.size()
+                ),
+                tableLayout.getTableLines(),
+                rowNumFormat
+        );
+        tableLayout.setTableLines(toStringBuilder.tableLines);
+        toStringBuilder.startStreaming(appendable);
+        for (final Collection<?> row : rows) {
+            toStringBuilder.streamRow(row);
+        }
+        toStringBuilder.finishStreaming();
+    }
+
+    public static void render(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final TableSource tableSource,
+            @Nonnull final int[] columnWidths,
+            @Nonnull final Appendable appendable
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert tableSource != null;
+        assert columnWidths != null;
+        assert appendable != null;
+        final int numTableColumns =
+                columnWidths.length - (textTableBuilder.getShowRowNums() ? 1 : 0);
+        new ToStringBuilder(
+                textTableBuilder,
+                new CurrentRowTableStorage(numTableColumns),
+                numTableColumns,
+                columnWidths,
+                null
+        ).renderSource(new AppendableLineWriter(appendable), tableSource);
+    }
+
+    @Nonnull
+    static ToStringBuilder forStreaming(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            final int numTableColumns,
+            @Nonnull final int[] columnWidths,
+            final boolean truncateItems
+    ) {
+        assert textTableBuilder != null;
+        assert columnWidths != null;
+        final ToStringBuilder toStringBuilder = new ToStringBuilder(
+                textTableBuilder,
+                new CurrentRowTableStorage(numTableColumns),
+                numTableColumns,
+                columnWidths,
+                null
+        );
+        toStringBuilder.truncateItems = truncateItems;
+        return toStringBuilder;
+    }
+
+    void startStreaming(@Nonnull final Appendable appendable) throws IOException {
+        assert appendable != null;
+        lineWriter = new AppendableLineWriter(appendable);
+        appendHead();
+    }
+
+    void streamRow(@Nullable final Collection<?> row) throws IOException {
+        // the table is a CurrentRowTableStorage, so this replaces the row being rendered
+        table.addRow(checkSourceRow(row, numColumns - firstTableColumn));
+        appendRowAndRepeatedHeaders(table.getNumRows() - 1);
+    }
+
+    void finishStreaming() throws IOException {
+        appendTail();
+    }
+
+    public static void renderPage(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final Appendable appendable,
+            final int firstRow,
+            final int lastRow,
+            final boolean showHeaders
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert appendable != null;
+        forBuilder(textTableBuilder).renderPage(
+                new AppendableLineWriter(appendable),
+                firstRow,
+                lastRow,
+                showHeaders
+        );
+    }
+
+    public static void render(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final Appendable appendable
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert appendable != null;
+        forBuilder(textTableBuilder).render(new AppendableLineWriter(appendable));
+    }
+
+    @Nonnull
+    public static String getToStringFor(@Nonnull final TextTable textTable) {
+        assert textTable != null;
+        final StringBuilder stringBuilder = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+        try {
+            new ToStringBuilder(textTable).render(new AppendableLineWriter(stringBuilder));
+        } catch (final IOException e) {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    public static void render(
+            @Nonnull final TextTable textTable,
+            @Nonnull final Appendable appendable
+    ) throws IOException {
+        assert textTable != null;
+        assert appendable != null;
+        new ToStringBuilder(textTable).render(new AppendableLineWriter(appendable));
+    }
+
+    public static void renderPage(
+            @Nonnull final TextTable textTable,
+            @Nonnull final Appendable appendable,
+            final int firstRow,
+            final int lastRow,
+            final boolean showHeaders
+    ) throws IOException {
+        assert textTable != null;
+        assert appendable != null;
+        new ToStringBuilder(textTable).renderPage(
+                new AppendableLineWriter(appendable),
+                firstRow,
+                lastRow,
+                showHeaders
+        );
+    }
+
+    public static void writeTo(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nonnull final Writer writer
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert writer != null;
+        forBuilder(textTableBuilder).render(new WriterLineWriter(writer));
+        writer.flush();
+    }
+
+    static long writeUtf8(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nullable final CharSequence renderedTable,
+            @Nonnull final Utf8LineWriter utf8LineWriter
+    ) throws IOException {
+        assert textTableBuilder != null;
+        assert utf8LineWriter != null;
+        if (renderedTable == null) {
+            forBuilder(textTableBuilder).render(utf8LineWriter);
+        } else {
+            utf8LineWriter.encode(renderedTable);
+        }
+        utf8LineWriter.flushBytes();
+        return utf8LineWriter.getNumBytes();
+    }
+
+    /**
+     * Renders a block of rows into its own buffer, so that blocks can be rendered on other threads
+     * and then written in order.
+     */
+    private static final class RowBlock implements Callable<StringBuilder> {
+
+        @Nonnull
+        private final ToStringBuilder toStringBuilder;
+
+        private final int firstRow;
+
+        private final int lastRow;
+
+        private RowBlock(
+                @Nonnull final ToStringBuilder prototype,
+                final int firstRow,
+                final int lastRow
+        ) {
+            assert prototype != null;
+            assert firstRow < lastRow;
+            toStringBuilder = new ToStringBuilder(prototype);
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        public StringBuilder call() throws IOException {
+            final StringBuilder lines = new StringBuilder(STRING_BUILDER_INITIAL_CAPACITY);
+            toStringBuilder.lineWriter = new AppendableLineWriter(lines);
+            toStringBuilder.justPrintedHeader = toStringBuilder.isHeaderRepeatedBefore(firstRow);
+            toStringBuilder.appendRows(firstRow, lastRow);
+            return lines;
+        }
+
+    }
+
+    /**
+     * Counts the chars written, for a {@link RenderListener}.
+     */
+    private static final class CountingLineWriter implements LineWriter {
+
+        @Nonnull
+        private final LineWriter lineWriter;
+
+        private long numChars;
+
+        private CountingLineWriter(@Nonnull final LineWriter lineWriter) {
+            assert lineWriter != null;
+            this.lineWriter = lineWriter;
+        }
+
+        private long getNumBytes() {
+            return (lineWriter instanceof Utf8LineWriter)
+                   ? ((Utf8LineWriter) lineWriter).getNumBytes()
+                   : RenderStats.UNKNOWN;
+        }
+
+        @Override
+        public void writeLine(@Nonnull final StringBuilder line) throws IOException {
+            assert line != null;
+            numChars += line.length();
+            lineWriter.writeLine(line);
+        }
+
+        @Override
+        public void writeLine(@Nonnull final char[] line, final int offset, final int length)
+                throws IOException {
+            assert line != null;
+            numChars += length;
+            lineWriter.writeLine(line, offset, length);
+        }
+
+    }
+
+    private static final class AppendableLineWriter implements LineWriter {
+
+        @Nonnull
+        private final Appendable appendable;
+
+        private AppendableLineWriter(@Nonnull final Appendable appendable) {
+            assert appendable != null;
+            this.appendable = appendable;
+        }
+
+        @Override
+        public void writeLine(@Nonnull final StringBuilder line) throws IOException {
+            assert line != null;
+            appendable.append(line);
+        }
+
+        @Override
+        public void writeLine(@Nonnull final char[] line, final int offset, final int length)
+                throws IOException {
+            assert line != null;
+            appendable.append(CharBuffer.wrap(line, offset, length));
+        }
+
+    }
+
+    private static final class WriterLineWriter implements LineWriter {
+
+        @Nonnull
+        private final Writer writer;
+
+        @Nonnull
+        private char[] chars = new char[STRING_BUILDER_INITIAL_CAPACITY];
+
+        private WriterLineWriter(@Nonnull final Writer writer) {
+            assert writer != null;
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeLine(@Nonnull final StringBuilder line) throws IOException {
+            assert line != null;
+            // Writer.append(CharSequence) would create a String per line, so copy the line into
+            // a reusable buffer and write that instead
+            final int length = line.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            line.getChars(0, length, chars, 0);
+            writer.write(chars, 0, length);
+        }
+
+        @Override
+        public void writeLine(@Nonnull final char[] line, final int offset, final int length)
+                throws IOException {
+            assert line != null;
+            writer.write(line, offset, length);
+        }
+
     }
 
 }
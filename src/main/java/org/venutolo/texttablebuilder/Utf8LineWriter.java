@@ -0,0 +1,220 @@
+package org.venutolo.texttablebuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Encodes lines as UTF-8 into a reusable buffer, writing the buffer out whenever it fills, so
+ * that the rendered table is never held as a {@link String} or a {@code byte[]}. Produces the
+ * same bytes as encoding the rendered table with {@link String#getBytes(String)}, including
+ * replacing unpaired surrogates with {@code '?'}.
+ * <p>
+ * The {@code writeTo} methods write a builder's table to each kind of destination, and return the
+ * number of bytes written.
+ *
+ * @author Rick Venutolo
+ */
+abstract class Utf8LineWriter implements LineWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // largest number of bytes a single char, or surrogate pair, is encoded as
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private static final byte REPLACEMENT_BYTE = '?';
+
+    @Nonnull
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+
+    private int numBytes;
+
+    private long numFlushedBytes;
+
+    abstract void writeBytes(@Nonnull byte[] bytes, int length) throws IOException;
+
+    @Override
+    public void writeLine(@Nonnull final StringBuilder line) throws IOException {
+        assert line != null;
+        encode(line);
+    }
+
+    @Override
+    public void writeLine(@Nonnull final char[] line, final int offset, final int length)
+            throws IOException {
+        assert line != null;
+        encode(CharBuffer.wrap(line, offset, length));
+    }
+
+    void encode(@Nonnull final CharSequence chars) throws IOException {
+        assert chars != null;
+        final int length = chars.length();
+        final int limit = bytes.length - MAX_BYTES_PER_CHAR;
+        int i = 0;
+        while (i < length) {
+            if (numBytes > limit) {
+                flushBytes();
+            }
+            final char c = chars.charAt(i);
+            i++;
+            if (c < 0x80) {
+                // checked first since every char of a table using the ASCII box drawing
+                // characters and ASCII items takes this path
+                bytes[numBytes++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[numBytes++] = (byte) (0xC0 | (c >> 6));
+                bytes[numBytes++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)
+                       && (i < length)
+                       && Character.isLowSurrogate(chars.charAt(i))) {
+                final int codePoint = Character.toCodePoint(c, chars.charAt(i));
+                i++;
+                bytes[numBytes++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[numBytes++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[numBytes++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[numBytes++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if ((c >= Character.MIN_SURROGATE) && (c <= Character.MAX_SURROGATE)) {
+                bytes[numBytes++] = REPLACEMENT_BYTE;
+            } else {
+                // box drawing characters are all encoded as three bytes
+                bytes[numBytes++] = (byte) (0xE0 | (c >> 12));
+                bytes[numBytes++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[numBytes++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    long getNumBytes() {
+        // including bytes encoded but not yet written
+        return numFlushedBytes + numBytes;
+    }
+
+    void flushBytes() throws IOException {
+        if (numBytes != 0) {
+            writeBytes(bytes, numBytes);
+            numFlushedBytes += numBytes;
+            numBytes = 0;
+        }
+    }
+
+    static long writeTo(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nullable final CharSequence renderedTable,
+            @Nonnull final OutputStream outputStream
+    ) throws IOException {
+        assert outputStream != null;
+        final long numBytes = ToStringBuilder.writeUtf8(
+                textTableBuilder,
+                renderedTable,
+                new OutputStreamLineWriter(outputStream)
+        );
+        outputStream.flush();
+        return numBytes;
+    }
+
+    static long writeTo(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nullable final CharSequence renderedTable,
+            @Nonnull final ByteBuffer byteBuffer
+    ) {
+        assert byteBuffer != null;
+        try {
+            return ToStringBuilder.writeUtf8(
+                    textTableBuilder,
+                    renderedTable,
+                    new ByteBufferLineWriter(byteBuffer)
+            );
+        } catch (final IOException e) {
+            // ByteBuffer does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long writeTo(
+            @Nonnull final TextTableBuilder textTableBuilder,
+            @Nullable final CharSequence renderedTable,
+            @Nonnull final File file
+    ) throws IOException {
+        assert file != null;
+        final FileOutputStream fileOutputStream = new FileOutputStream(file);
+        try {
+            return ToStringBuilder.writeUtf8(
+                    textTableBuilder,
+                    renderedTable,
+                    new FileChannelLineWriter(fileOutputStream.getChannel())
+            );
+        } finally {
+            fileOutputStream.close();
+        }
+    }
+
+    private static final class OutputStreamLineWriter extends Utf8LineWriter {
+
+        @Nonnull
+        private final OutputStream outputStream;
+
+        private OutputStreamLineWriter(@Nonnull final OutputStream outputStream) {
+            assert outputStream != null;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        void writeBytes(@Nonnull final byte[] bytes, final int length) throws IOException {
+            outputStream.write(bytes, 0, length);
+        }
+
+    }
+
+    private static final class ByteBufferLineWriter extends Utf8LineWriter {
+
+        @Nonnull
+        private final ByteBuffer byteBuffer;
+
+        private ByteBufferLineWriter(@Nonnull final ByteBuffer byteBuffer) {
+            assert byteBuffer != null;
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        void writeBytes(@Nonnull final byte[] bytes, final int length) {
+            byteBuffer.put(bytes, 0, length);
+        }
+
+    }
+
+    private static final class FileChannelLineWriter extends Utf8LineWriter {
+
+        @Nonnull
+        private final FileChannel fileChannel;
+
+        @Nullable
+        private ByteBuffer byteBuffer;
+
+        private FileChannelLineWriter(@Nonnull final FileChannel fileChannel) {
+            assert fileChannel != null;
+            this.fileChannel = fileChannel;
+        }
+
+        @Override
+        void writeBytes(@Nonnull final byte[] bytes, final int length) throws IOException {
+            // the same array is given every time, so wrap it once
+            if (byteBuffer == null) {
+                byteBuffer = ByteBuffer.wrap(bytes);
+            }
+            assert byteBuffer.array() == bytes;
+            byteBuffer.clear();
+            byteBuffer.limit(length);
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,318 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.RowOrder.INSERTION;
+import static org.venutolo.texttablebuilder.RowOrder.THREAD;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class ConcurrentTextTableBuilderTest {
+
+    private static final int NUM_THREADS = 4;
+
+    private static final int ROWS_PER_THREAD = 1000;
+
+    private static final String NOT_SAME_AS_BUILDER =
+            "concurrent builder did not render the same as a builder with the same rows";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("thread", "row")
+                .setShowRowNums(true)
+                .setNullColumnReplacement("NULL");
+        executorService = Executors.newFixedThreadPool(NUM_THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private void addRowsConcurrently(final ConcurrentTextTableBuilder concurrentTextTableBuilder)
+            throws InterruptedException, ExecutionException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            final int thread = i;
+            futures.add(executorService.submit(
+                    new Callable<Void>() {
+                        @Override
+                        public Void call() throws InterruptedException {
+                            start.await();
+                            for (int row = 0; row < ROWS_PER_THREAD; row++) {
+                                concurrentTextTableBuilder.addRow(
+                                        "t" + thread,
+                                        ((row % 10) == 0) ? null : row
+                                );
+                            }
+                            return null;
+                        }
+                    }
+            ));
+        }
+        start.countDown();
+        for (final Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private void assertRendersSameAsBuilder(final TextTable textTable) {
+        final TextTableBuilder expected = new TextTableBuilder()
+                .setHeaders("thread", "row")
+                .setShowRowNums(true)
+                .setNullColumnReplacement("NULL");
+        for (final List<Object> row : textTable.getRows()) {
+            expected.addRow(row);
+        }
+        assertEquals(NOT_SAME_AS_BUILDER, expected.toString(), textTable.toString());
+    }
+
+    // each thread's rows must be a prefix of the rows it added, in the order it added them
+    private static void assertThreadOrderKept(final List<List<Object>> rows) {
+        final int[] numThreadRows = new int[NUM_THREADS];
+        for (final List<Object> row : rows) {
+            final int thread = Integer.parseInt(((String) row.get(0)).substring(1));
+            final int threadRow = numThreadRows[thread];
+            assertEquals(
+                    "rows of a thread are out of order",
+                    ((threadRow % 10) == 0) ? null : threadRow,
+                    row.get(1)
+            );
+            numThreadRows[thread]++;
+        }
+    }
+
+    @Test
+    public void testSingleThread() {
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(INSERTION)
+                                .addRow("a", 1)
+                                .addRow("a much wider item", null)
+                                .addRow(Arrays.asList("c", 3));
+        textTableBuilder.addRow("a", 1)
+                        .addRow("a much wider item", null)
+                        .addRow("c", 3);
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                textTableBuilder.toString(),
+                concurrentTextTableBuilder.toString()
+        );
+        assertEquals("wrong number of rows", 3, concurrentTextTableBuilder.getNumRows());
+        assertEquals("wrong number of columns", 2, concurrentTextTableBuilder.getNumColumns());
+    }
+
+    @Test
+    public void testBuilderRowsNotIncluded() {
+        textTableBuilder.addRow("a", "b");
+        assertEquals(
+                "rows of the builder must not be included",
+                0,
+                textTableBuilder.newConcurrentBuilder(THREAD).build().getNumRows()
+        );
+    }
+
+    @Test
+    public void testNumColumnsNotSetByBuilderRows() {
+        final ConcurrentTextTableBuilder concurrentBuilder =
+                new TextTableBuilder().addRow("a", "b").newConcurrentBuilder(THREAD);
+        assertEquals("wrong number of columns", 0, concurrentBuilder.getNumColumns());
+        concurrentBuilder.addRow("a");
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRow("a").toString(),
+                concurrentBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testInsertionOrder() throws InterruptedException, ExecutionException {
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(INSERTION);
+        addRowsConcurrently(concurrentTextTableBuilder);
+        final TextTable textTable = concurrentTextTableBuilder.build();
+        assertEquals("wrong number of rows", NUM_THREADS * ROWS_PER_THREAD, textTable.getNumRows());
+        assertThreadOrderKept(textTable.getRows());
+        assertRendersSameAsBuilder(textTable);
+    }
+
+    @Test
+    public void testThreadOrder() throws InterruptedException, ExecutionException {
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(THREAD);
+        addRowsConcurrently(concurrentTextTableBuilder);
+        final List<List<Object>> rows = concurrentTextTableBuilder.build().getRows();
+        assertEquals("wrong number of rows", NUM_THREADS * ROWS_PER_THREAD, rows.size());
+        for (int i = 0; i < rows.size(); i += ROWS_PER_THREAD) {
+            final Object thread = rows.get(i).get(0);
+            for (int row = 0; row < ROWS_PER_THREAD; row++) {
+                assertEquals("rows of a thread are not together", thread, rows.get(i + row).get(0));
+                assertEquals(
+                        "rows of a thread are out of order",
+                        ((row % 10) == 0) ? null : row,
+                        rows.get(i + row).get(1)
+                );
+            }
+        }
+        assertRendersSameAsBuilder(concurrentTextTableBuilder.build());
+    }
+
+    @Test
+    public void testBuildWhileAddingRows() throws InterruptedException, ExecutionException {
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(INSERTION);
+        final ExecutorService snapshotExecutorService = Executors.newSingleThreadExecutor();
+        final Future<List<TextTable>> snapshots = snapshotExecutorService.submit(
+                new Callable<List<TextTable>>() {
+                    @Override
+                    public List<TextTable> call() {
+                        final List<TextTable> textTables = new ArrayList<TextTable>();
+                        for (int i = 0; i < 20; i++) {
+                            textTables.add(concurrentTextTableBuilder.build());
+                        }
+                        return textTables;
+                    }
+                }
+        );
+        addRowsConcurrently(concurrentTextTableBuilder);
+        final List<TextTable> textTables = snapshots.get();
+        snapshotExecutorService.shutdown();
+        for (final TextTable textTable : textTables) {
+            // every snapshot is a prefix of the rows in insertion order
+            assertThreadOrderKept(textTable.getRows());
+            assertRendersSameAsBuilder(textTable);
+        }
+    }
+
+    @Test
+    public void testSnapshotUnchangedByAddingRows() {
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(INSERTION).addRow("a", "b");
+        final TextTable textTable = concurrentTextTableBuilder.build();
+        final String expected = textTable.toString();
+        concurrentTextTableBuilder.addRow("a much wider item", "b");
+        assertEquals("snapshot was changed by adding a row", expected, textTable.toString());
+    }
+
+    // returns a reference to an item added by the given executor's thread to a builder that is
+    // no longer reachable once this returns
+    private WeakReference<Object> addItemFromThread(final ExecutorService threadExecutorService)
+            throws InterruptedException, ExecutionException {
+        final Object item = new Object();
+        final ConcurrentTextTableBuilder concurrentTextTableBuilder =
+                textTableBuilder.newConcurrentBuilder(INSERTION);
+        threadExecutorService.submit(
+                new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        concurrentTextTableBuilder.addRow(item, "b");
+                        return null;
+                    }
+                }
+        ).get();
+        assertEquals("wrong number of rows", 1, concurrentTextTableBuilder.getNumRows());
+        return new WeakReference<Object>(item);
+    }
+
+    @Test
+    public void testRowsNotKeptByThreads() throws InterruptedException, ExecutionException {
+        final ExecutorService threadExecutorService = Executors.newSingleThreadExecutor();
+        try {
+            final WeakReference<Object> itemReference = addItemFromThread(threadExecutorService);
+            for (int i = 0; (i < 20) && (itemReference.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            // the thread is still alive, so it must not be what kept the rows
+            assertNull("rows were kept by the thread that added them", itemReference.get());
+        } finally {
+            threadExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAddRowForItemThatThrows() {
+        final ConcurrentTextTableBuilder concurrentBuilder =
+                new TextTableBuilder().newConcurrentBuilder(INSERTION);
+        try {
+            concurrentBuilder.addRow("a", new ThrowingItem());
+            fail("expected exception from item");
+        } catch (final IllegalStateException e) {
+            assertEquals("wrong exception", ThrowingItem.MESSAGE, e.getMessage());
+        }
+        assertEquals("row was added", 0, concurrentBuilder.getNumRows());
+        assertEquals("number of columns was set", 0, concurrentBuilder.getNumColumns());
+        concurrentBuilder.addRow("a");
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRow("a").toString(),
+                concurrentBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testNewConcurrentBuilderForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.newConcurrentBuilder(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddRowForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.newConcurrentBuilder(INSERTION).addRow((Object[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddRowForBadColumnLength() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        textTableBuilder.newConcurrentBuilder(INSERTION).addRow("a", "b", "c");
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testFirstRowSetsNumColumns() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        new TextTableBuilder().newConcurrentBuilder(THREAD).addRow("a", "b").addRow("a");
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.venutolo.texttablebuilder;
+
+/**
+ * Table item that counts how many times its string representation is requested.
+ *
+ * @author Rick Venutolo
+ */
+final class CountingItem {
+
+    private final String string;
+
+    private int toStringCount;
+
+    CountingItem(final String string) {
+        this.string = string;
+    }
+
+    int getToStringCount() {
+        return toStringCount;
+    }
+
+    @Override
+    public String toString() {
+        toStringCount++;
+        return string;
+    }
+
+}
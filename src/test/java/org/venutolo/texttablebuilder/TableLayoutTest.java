@@ -0,0 +1,308 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TableLayoutTest {
+
+    private static final int NUM_THREADS = 4;
+
+    private static final String NOT_SAME_AS_BUILDER =
+            "layout did not render the same as a builder with the same rows";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2")
+                .setHeaderAlignments(RIGHT, LEFT)
+                .setColumnAlignments(LEFT, RIGHT)
+                .setRepeatHeadersEveryXRows(2)
+                .setShowRowNums(true)
+                .setLinePrepender("> ")
+                .setNullColumnReplacement("NULL");
+        executorService = Executors.newFixedThreadPool(NUM_THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static List<List<Object>> getRows(final int table) {
+        final List<List<Object>> rows = new ArrayList<List<Object>>();
+        for (int i = 0; i <= (table % 5); i++) {
+            rows.add(Arrays.<Object>asList(
+                    "t" + table + "r" + i,
+                    ((i % 3) == 0) ? null : i * table
+            ));
+        }
+        return rows;
+    }
+
+    private String getBuilderString(final Collection<? extends Collection<?>> rows) {
+        return getBuilderString(rows, null);
+    }
+
+    private String getBuilderString(
+            final Collection<? extends Collection<?>> rows,
+            final NumberFormat rowNumFormat
+    ) {
+        final TextTableBuilder expected = new TextTableBuilder()
+                .setRowNumFormat(rowNumFormat)
+                .setHeaders("h1", "h2")
+                .setHeaderAlignments(RIGHT, LEFT)
+                .setColumnAlignments(LEFT, RIGHT)
+                .setRepeatHeadersEveryXRows(2)
+                .setShowRowNums(true)
+                .setLinePrepender("> ")
+                .setNullColumnReplacement("NULL");
+        return expected.addRows(rows).toString();
+    }
+
+    @Test
+    public void testToString() {
+        final TableLayout tableLayout = textTableBuilder.compileLayout();
+        for (int table = 0; table < 10; table++) {
+            final List<List<Object>> rows = getRows(table);
+            assertEquals(NOT_SAME_AS_BUILDER, getBuilderString(rows), tableLayout.toString(rows));
+        }
+    }
+
+    @Test
+    public void testRender() throws IOException {
+        final List<List<Object>> rows = getRows(4);
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                getBuilderString(rows),
+                textTableBuilder.compileLayout().render(rows, new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testToStringForNoRows() {
+        final List<List<Object>> rows = Collections.emptyList();
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                getBuilderString(rows),
+                textTableBuilder.compileLayout().toString(rows)
+        );
+    }
+
+    @Test
+    public void testToStringWithoutHeaders() {
+        final TableLayout tableLayout = new TextTableBuilder().compileLayout();
+        assertEquals("wrong number of columns", 0, tableLayout.getNumColumns());
+        final List<List<Object>> rows = Arrays.asList(
+                Arrays.<Object>asList("a", "b", "c"),
+                Arrays.<Object>asList("a much wider item", null, 3)
+        );
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRows(rows).toString(),
+                tableLayout.toString(rows)
+        );
+        // each table sets its own number of columns
+        final List<List<Object>> otherRows = Collections.singletonList(Arrays.<Object>asList("a"));
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRows(otherRows).toString(),
+                tableLayout.toString(otherRows)
+        );
+    }
+
+    @Test
+    public void testNumColumnsNotSetByTemplateRows() {
+        final TableLayout tableLayout = new TextTableBuilder().addRow("a", "b").compileLayout();
+        assertEquals("wrong number of columns", 0, tableLayout.getNumColumns());
+        final List<List<Object>> rows = Collections.singletonList(Arrays.<Object>asList("a"));
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRows(rows).toString(),
+                tableLayout.toString(rows)
+        );
+    }
+
+    @Test
+    public void testNumColumnsSetByTemplateAlignments() {
+        final TableLayout tableLayout =
+                new TextTableBuilder().setColumnAlignments(LEFT, RIGHT).compileLayout();
+        assertEquals("wrong number of columns", 2, tableLayout.getNumColumns());
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        tableLayout.toString(Collections.singletonList(Arrays.<Object>asList("a", "b", "c")));
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testLayoutUnchangedByBuilder() {
+        final List<List<Object>> rows = getRows(3);
+        final TableLayout tableLayout = textTableBuilder.compileLayout();
+        textTableBuilder.setHeaders("x", "y")
+                        .setShowRowNums(false)
+                        .setBoxDrawingCharacters(BoxDrawingCharacters.ASCII)
+                        .addRow("a", "b");
+        assertEquals(
+                "layout was changed by the builder",
+                getBuilderString(rows),
+                tableLayout.toString(rows)
+        );
+    }
+
+    @Test
+    public void testHeadersMaterializedOnce() {
+        final CountingItem header = new CountingItem("h1");
+        final TableLayout tableLayout = new TextTableBuilder()
+                .setHeaders(header, "h2")
+                .setShowRowNums(true)
+                .compileLayout();
+        final int toStringCount = header.getToStringCount();
+        for (int table = 0; table < 10; table++) {
+            tableLayout.toString(getRows(table));
+        }
+        assertEquals(
+                "header was materialized for each table",
+                toStringCount,
+                header.getToStringCount()
+        );
+    }
+
+    @Test
+    public void testTableLinesReusedForSameColumnWidths() {
+        final TableLayout tableLayout = textTableBuilder.compileLayout();
+        tableLayout.toString(getRows(1));
+        final TableLines tableLines = tableLayout.getTableLines();
+        tableLayout.toString(getRows(1));
+        assertSame("lines were not reused", tableLines, tableLayout.getTableLines());
+        tableLayout.toString(getRows(12));
+        assertNotSame(
+                "lines were reused for other widths",
+                tableLines,
+                tableLayout.getTableLines()
+        );
+    }
+
+    @Test
+    public void testConcurrentToString() throws InterruptedException, ExecutionException {
+        assertConcurrentToString(null);
+    }
+
+    @Test
+    public void testConcurrentToStringWithRowNumFormat()
+            throws InterruptedException, ExecutionException {
+        assertConcurrentToString(new DecimalFormat("#,##0.00"));
+    }
+
+    private void assertConcurrentToString(final NumberFormat rowNumFormat)
+            throws InterruptedException, ExecutionException {
+        final TableLayout tableLayout = textTableBuilder.setRowNumFormat(rowNumFormat)
+                                                        .compileLayout();
+        final List<Future<List<String>>> renders = new ArrayList<Future<List<String>>>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            renders.add(executorService.submit(
+                    new Callable<List<String>>() {
+                        @Override
+                        public List<String> call() {
+                            final List<String> rendered = new ArrayList<String>();
+                            for (int table = 0; table < 200; table++) {
+                                rendered.add(tableLayout.toString(getRows(table)));
+                            }
+                            return rendered;
+                        }
+                    }
+            ));
+        }
+        for (final Future<List<String>> render : renders) {
+            final List<String> rendered = render.get();
+            for (int table = 0; table < rendered.size(); table++) {
+                assertEquals(
+                        NOT_SAME_AS_BUILDER,
+                        getBuilderString(getRows(table), rowNumFormat),
+                        rendered.get(table)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testRenderForBadColumnLengthAppendsNothing() throws IOException {
+        final StringBuilder stringBuilder = new StringBuilder();
+        try {
+            textTableBuilder.compileLayout().render(
+                    Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("a", "b", "c")),
+                    stringBuilder
+            );
+            fail(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        } catch (final IllegalArgumentException e) {
+            assertTrue(
+                    "wrong message",
+                    e.getMessage().contains(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING)
+            );
+        }
+        assertEquals("appended before rows were checked", 0, stringBuilder.length());
+    }
+
+    @Test
+    public void testToStringForNullRow() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.compileLayout().toString(Collections.<List<Object>>singletonList(null));
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testToStringForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.compileLayout().toString(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderForNullAppendable() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.compileLayout().render(getRows(1), null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
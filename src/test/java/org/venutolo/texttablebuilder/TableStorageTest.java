@@ -0,0 +1,72 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TableStorageTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private List<TableStorage> tableStorages;
+
+    @Before
+    public void setUp() {
+        tableStorages = new ArrayList<TableStorage>();
+        tableStorages.add(new RowTableStorage());
+        tableStorages.add(new ColumnarTableStorage());
+        for (final TableStorage tableStorage : tableStorages) {
+            tableStorage.addRow(Arrays.asList("a", null));
+            tableStorage.addRow(Arrays.asList("c", "d"));
+        }
+    }
+
+    @Test
+    public void testGetRowView() {
+        for (final TableStorage tableStorage : tableStorages) {
+            assertEquals("wrong row view", Arrays.asList("a", null), tableStorage.getRowView(0));
+            assertEquals("wrong row view", Arrays.asList("c", "d"), tableStorage.getRowView(1));
+        }
+    }
+
+    @Test
+    public void testRowViewIsReadOnly() {
+        expectedException.expect(UnsupportedOperationException.class);
+        tableStorages.get(0).getRowView(0).set(0, "changed");
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRowViewForBadColumn() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        tableStorages.get(1).getRowView(0).get(2);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddAllCopiesRows() {
+        final TableStorage rowTableStorage = tableStorages.get(0);
+        final TableStorage columnarTableStorage = new ColumnarTableStorage();
+        columnarTableStorage.addAll(rowTableStorage);
+        final TableStorage copiedRowTableStorage = new RowTableStorage();
+        copiedRowTableStorage.addAll(columnarTableStorage);
+        // the views given to addRow must not be kept
+        columnarTableStorage.addRow(Arrays.asList("e", "f"));
+        assertEquals("rows not copied", rowTableStorage, copiedRowTableStorage);
+        assertEquals("rows not copied", rowTableStorage.getRows(), copiedRowTableStorage.getRows());
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderAddRowsTest {
+
+    private static final int NUM_ROWS = 100;
+
+    private static final String NOT_SAME_AS_ADD_ROW =
+            "adding rows in bulk did not behave the same as adding them one at a time";
+
+    private static final String ROWS_ADDED_FOR_BAD_ROW = "no rows should be added if a row is bad";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private List<List<Object>> rows;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder().setShowRowNums(true);
+        rows = new ArrayList<List<Object>>();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rows.add(Arrays.<Object>asList("r" + i, (i % 3 == 0) ? null : i));
+        }
+    }
+
+    private TextTableBuilder addRowsOneAtATime(final TextTableBuilder oneAtATime) {
+        for (final List<Object> row : rows) {
+            oneAtATime.addRow(row);
+        }
+        return oneAtATime;
+    }
+
+    @Test
+    public void testAddRows() {
+        final TextTableBuilder oneAtATime =
+                addRowsOneAtATime(new TextTableBuilder().setShowRowNums(true));
+        textTableBuilder.addRows(rows);
+        assertEquals(NOT_SAME_AS_ADD_ROW, oneAtATime.getRows(), textTableBuilder.getRows());
+        assertEquals(NOT_SAME_AS_ADD_ROW, oneAtATime.toString(), textTableBuilder.toString());
+    }
+
+    @Test
+    public void testAddRowsForColumnarStorage() {
+        final TextTableBuilder oneAtATime =
+                addRowsOneAtATime(new TextTableBuilder().setShowRowNums(true));
+        textTableBuilder.columnarStorage().addRows(rows);
+        assertEquals(NOT_SAME_AS_ADD_ROW, oneAtATime.getRows(), textTableBuilder.getRows());
+        assertEquals(NOT_SAME_AS_ADD_ROW, oneAtATime.toString(), textTableBuilder.toString());
+    }
+
+    @Test
+    public void testAddRowsAfterAddRow() {
+        final TextTableBuilder oneAtATime =
+                addRowsOneAtATime(new TextTableBuilder().setShowRowNums(true));
+        textTableBuilder.addRow(rows.get(0)).addRows(rows.subList(1, NUM_ROWS));
+        assertEquals(NOT_SAME_AS_ADD_ROW, oneAtATime.toString(), textTableBuilder.toString());
+    }
+
+    @Test
+    public void testAddRowsForArrays() {
+        final Object[][] rowArrays = new Object[NUM_ROWS][];
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rowArrays[i] = rows.get(i).toArray();
+        }
+        textTableBuilder.addRows(rowArrays);
+        assertEquals(NOT_SAME_AS_ADD_ROW, rows, textTableBuilder.getRows());
+    }
+
+    @Test
+    public void testAddRowsForEmpty() {
+        textTableBuilder.addRows(Collections.<List<Object>>emptyList());
+        assertEquals("no rows should be added", 0, textTableBuilder.getNumRows());
+        assertEquals("number of columns should not be set", 0, textTableBuilder.getNumColumns());
+    }
+
+    @Test
+    public void testAddRowsUpdatesCachedToString() {
+        textTableBuilder.addRows(rows.subList(0, 1));
+        final String before = textTableBuilder.toString();
+        textTableBuilder.addRows(rows.subList(1, NUM_ROWS));
+        assertEquals(
+                NOT_SAME_AS_ADD_ROW,
+                addRowsOneAtATime(new TextTableBuilder().setShowRowNums(true)).toString(),
+                textTableBuilder.toString()
+        );
+        assertEquals("expected one render per change", 2, textTableBuilder.getRenderCacheMisses());
+        assertFalse("expected table to change", before.equals(textTableBuilder.toString()));
+    }
+
+    @Test
+    public void testAddRowsForItemThatThrows() {
+        textTableBuilder.addRow("a", "b");
+        final String before = textTableBuilder.toString();
+        final List<List<Object>> badRows = new ArrayList<List<Object>>(rows);
+        badRows.add(Arrays.<Object>asList("a", new ThrowingItem()));
+        try {
+            textTableBuilder.addRows(badRows);
+            fail("expected the item's exception");
+        } catch (final IllegalStateException e) {
+            assertEquals("wrong exception", ThrowingItem.MESSAGE, e.getMessage());
+        }
+        assertEquals(ROWS_ADDED_FOR_BAD_ROW, 1, textTableBuilder.getNumRows());
+        assertEquals(ROWS_ADDED_FOR_BAD_ROW, before, textTableBuilder.toString());
+        assertEquals(
+                ROWS_ADDED_FOR_BAD_ROW,
+                new TextTableBuilder().setShowRowNums(true).addRow("a", "b"),
+                textTableBuilder
+        );
+    }
+
+    @Test
+    public void testFirstRowsThatThrowDoNotSetNumColumns() {
+        final TextTableBuilder emptyTextTableBuilder = new TextTableBuilder();
+        try {
+            emptyTextTableBuilder.addRows(
+                    Collections.singletonList(Arrays.<Object>asList("a", new ThrowingItem()))
+            );
+            fail("expected the item's exception");
+        } catch (final IllegalStateException e) {
+            assertEquals("wrong exception", ThrowingItem.MESSAGE, e.getMessage());
+        }
+        assertEquals("number of columns was set", 0, emptyTextTableBuilder.getNumColumns());
+    }
+
+    @Test
+    public void testAddRowsForBadColumnLength() {
+        final List<List<Object>> badRows = new ArrayList<List<Object>>(rows);
+        badRows.add(Arrays.<Object>asList("a", "b", "c"));
+        try {
+            textTableBuilder.addRows(badRows);
+            fail(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        } catch (final IllegalArgumentException e) {
+            assertEquals(
+                    "wrong exception message",
+                    "Wrong number of columns: 3; expected 2 columns",
+                    e.getMessage()
+            );
+        }
+        assertEquals(ROWS_ADDED_FOR_BAD_ROW, 0, textTableBuilder.getNumRows());
+        assertEquals(ROWS_ADDED_FOR_BAD_ROW, 0, textTableBuilder.getNumColumns());
+    }
+
+    @Test
+    public void testAddRowsForBadColumnLengthAfterHeaders() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        textTableBuilder.setHeaders("h1", "h2").addRows(new Object[]{"a", "b", "c"});
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddRowsForNullRow() {
+        final List<Collection<?>> badRows = new ArrayList<Collection<?>>(rows);
+        badRows.add(null);
+        try {
+            textTableBuilder.addRows(badRows);
+            fail(SHOULD_NOT_REACH_THIS_POINT);
+        } catch (final IllegalArgumentException e) {
+            assertEquals(
+                    "wrong exception message",
+                    "row at index " + NUM_ROWS + " cannot be null",
+                    e.getMessage()
+            );
+        }
+        assertEquals(ROWS_ADDED_FOR_BAD_ROW, 0, textTableBuilder.getNumRows());
+    }
+
+    @Test
+    public void testAddRowsForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.addRows((Collection<List<Object>>) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddRowsForNullArrays() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.addRows((Object[][]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.GETTER_NO_DEFENSIVE_COPY;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderAdoptRowTest {
+
+    private static final String NOT_SAME_AS_ADD_ROW =
+            "adopting rows did not behave the same as adding them";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private static TextTableBuilder populate(
+            final TextTableBuilder textTableBuilder,
+            final boolean adopt
+    ) {
+        textTableBuilder.setHeaders("h1", "h2")
+                        .setShowRowNums(true)
+                        .setNullColumnReplacement("NULL");
+        for (int i = 0; i < 20; i++) {
+            final Object[] row = {"r" + i, (i % 3 == 0) ? null : i};
+            if (adopt) {
+                textTableBuilder.adoptRow(row);
+            } else {
+                textTableBuilder.addRow(row);
+            }
+        }
+        return textTableBuilder;
+    }
+
+    @Test
+    public void testAdoptRow() {
+        final TextTableBuilder added = populate(new TextTableBuilder(), false);
+        final TextTableBuilder adopted = populate(new TextTableBuilder(), true);
+        assertEquals(NOT_SAME_AS_ADD_ROW, added.getRows(), adopted.getRows());
+        assertEquals(NOT_SAME_AS_ADD_ROW, added.toString(), adopted.toString());
+        assertEquals(NOT_SAME_AS_ADD_ROW, added, adopted);
+        assertEquals(NOT_SAME_AS_ADD_ROW, added.hashCode(), adopted.hashCode());
+    }
+
+    @Test
+    public void testAdoptRowForColumnarStorage() {
+        final TextTableBuilder added = populate(new TextTableBuilder(), false);
+        final TextTableBuilder adopted = populate(new TextTableBuilder().columnarStorage(), true);
+        assertEquals(NOT_SAME_AS_ADD_ROW, added.getRows(), adopted.getRows());
+        assertEquals(NOT_SAME_AS_ADD_ROW, added.toString(), adopted.toString());
+    }
+
+    @Test
+    public void testAdoptRowThenSnapshot() {
+        final TextTableBuilder adopted = populate(new TextTableBuilder(), true);
+        assertEquals(NOT_SAME_AS_ADD_ROW, adopted.toString(), adopted.build().toString());
+    }
+
+    @Test
+    public void testGetRowsForDefensiveCopying() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder().adoptRow("a", "b");
+        final List<List<Object>> rows = textTableBuilder.getRows();
+        rows.get(0).set(0, "changed");
+        assertEquals(
+                GETTER_NO_DEFENSIVE_COPY,
+                Arrays.<Object>asList("a", "b"),
+                textTableBuilder.getRows().get(0)
+        );
+    }
+
+    @Test
+    public void testAdoptRowForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        new TextTableBuilder().adoptRow((Object[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAdoptRowForBadColumnLength() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        new TextTableBuilder().setHeaders("h1", "h2").adoptRow("a", "b", "c");
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,210 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EQUAL_TO_INSTANCE_WITH_SAME_VALUES;
+import static org.venutolo.texttablebuilder.TestStrings.HASH_CODE_MUST_BE_SAME;
+import static org.venutolo.texttablebuilder.TestStrings.NOT_EQUAL_TO_INSTANCE_WITH_DIFFERENT_VALUES;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderBuildTest {
+
+    private static final int NUM_ROWS = 2500;
+
+    private static final int NUM_THREADS = 4;
+
+    private static final String SNAPSHOT_NOT_EQUAL_TO_STRING =
+            "rendered snapshot is not equal to toString() when it was built";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2", "h3")
+                .setHeaderAlignments(LEFT, RIGHT, LEFT)
+                .setColumnAlignments(RIGHT, LEFT, RIGHT)
+                .setRepeatHeadersEveryXRows(100)
+                .setShowRowNums(true)
+                .setRowNumFormat(new DecimalFormat("#,##0"))
+                .setNullColumnReplacement("NULL");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            textTableBuilder.addRow("r" + i, (i % 7 == 0) ? null : i, i * 3);
+        }
+        executorService = Executors.newFixedThreadPool(NUM_THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals(
+                SNAPSHOT_NOT_EQUAL_TO_STRING,
+                textTableBuilder.toString(),
+                textTableBuilder.build().toString()
+        );
+    }
+
+    @Test
+    public void testToStringForEmptyTable() {
+        final TextTableBuilder emptyTextTableBuilder = new TextTableBuilder();
+        assertEquals(
+                SNAPSHOT_NOT_EQUAL_TO_STRING,
+                emptyTextTableBuilder.toString(),
+                emptyTextTableBuilder.build().toString()
+        );
+    }
+
+    @Test
+    public void testToStringForColumnarStorage() {
+        final TextTableBuilder columnarTextTableBuilder = new TextTableBuilder()
+                .columnarStorage()
+                .addLongRow(1, 22)
+                .addLongRow(333, 4)
+                .addRow("five", 6L);
+        assertEquals(
+                SNAPSHOT_NOT_EQUAL_TO_STRING,
+                columnarTextTableBuilder.toString(),
+                columnarTextTableBuilder.build().toString()
+        );
+    }
+
+    @Test
+    public void testRender() throws IOException {
+        assertEquals(
+                SNAPSHOT_NOT_EQUAL_TO_STRING,
+                textTableBuilder.toString(),
+                textTableBuilder.build().render(new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testRenderPage() {
+        assertEquals(
+                "rendered page of snapshot is not equal to page of builder",
+                textTableBuilder.toString(95, 205, true),
+                textTableBuilder.build().toString(95, 205, true)
+        );
+    }
+
+    @Test
+    public void testGetNumRowsAndColumns() {
+        final TextTable textTable = textTableBuilder.build();
+        assertEquals("wrong number of rows", NUM_ROWS, textTable.getNumRows());
+        assertEquals("wrong number of columns", 3, textTable.getNumColumns());
+    }
+
+    @Test
+    public void testSnapshotUnchangedByBuilder() {
+        final String expected = textTableBuilder.toString();
+        final TextTable textTable = textTableBuilder.build();
+        textTableBuilder.addRow("a much wider item than any other", "b", "c")
+                        .setHeaders("x", "y", "z")
+                        .setShowRowNums(false)
+                        .setBoxDrawingCharacters(BoxDrawingCharacters.ASCII);
+        ((DecimalFormat) textTableBuilder.getRowNumFormat()).applyPattern("000000");
+        assertEquals("snapshot was changed by the builder", expected, textTable.toString());
+        assertEquals("wrong number of rows", NUM_ROWS, textTable.getNumRows());
+    }
+
+    @Test
+    public void testSnapshotUnchangedByClearRows() {
+        final String expected = textTableBuilder.toString();
+        final TextTable textTable = textTableBuilder.build();
+        textTableBuilder.clearRows();
+        assertEquals("snapshot was changed by the builder", expected, textTable.toString());
+    }
+
+    @Test
+    public void testConcurrentRender() throws InterruptedException, ExecutionException {
+        final String expected = textTableBuilder.toString();
+        final TextTable textTable = textTableBuilder.build();
+        final List<Future<String>> renders = new ArrayList<Future<String>>();
+        for (int i = 0; i < NUM_THREADS * 4; i++) {
+            final int page = i;
+            renders.add(executorService.submit(
+                    new Callable<String>() {
+                        @Override
+                        public String call() throws IOException {
+                            // whole tables and pages at the same time, all formatting row numbers
+                            if ((page % 2) == 0) {
+                                return textTable.render(new StringBuilder()).toString();
+                            }
+                            return textTable.toString(page * 100, (page + 1) * 100, true);
+                        }
+                    }
+            ));
+        }
+        for (int i = 0; i < renders.size(); i++) {
+            final String expectedRender = ((i % 2) == 0)
+                                          ? expected
+                                          : textTableBuilder.toString(i * 100, (i + 1) * 100, true);
+            assertEquals(
+                    "concurrent render was not equal to render by the builder",
+                    expectedRender,
+                    renders.get(i).get()
+            );
+        }
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final TextTable textTable = textTableBuilder.build();
+        final TextTable sameTextTable = textTableBuilder.build();
+        assertEquals(EQUAL_TO_INSTANCE_WITH_SAME_VALUES, textTable, sameTextTable);
+        assertEquals(HASH_CODE_MUST_BE_SAME, textTable.hashCode(), sameTextTable.hashCode());
+        textTableBuilder.addRow("a", "b", "c");
+        assertFalse(
+                NOT_EQUAL_TO_INSTANCE_WITH_DIFFERENT_VALUES,
+                textTable.equals(textTableBuilder.build())
+        );
+    }
+
+    @Test
+    public void testRenderForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        textTableBuilder.build().render(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderPageForInvalidRowRange() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid row range");
+        textTableBuilder.build().toString(0, NUM_ROWS + 1, true);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.EQUAL_TO_INSTANCE_WITH_SAME_VALUES;
+import static org.venutolo.texttablebuilder.TestStrings.GETTER_NO_DEFENSIVE_COPY;
+import static org.venutolo.texttablebuilder.TestStrings.GETTER_SETTER_VALUE_NOT_EQUAL;
+import static org.venutolo.texttablebuilder.TestStrings.HASH_CODE_MUST_BE_SAME;
+import static org.venutolo.texttablebuilder.TestStrings.NOT_EMPTY_AFTER_CLEAR;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderColumnarStorageTest {
+
+    private static final int NUM_ROWS = 100;
+
+    private static final String NOT_SAME_AS_ROW_STORAGE =
+            "columnar storage did not behave the same as row storage";
+
+    private TextTableBuilder rowTextTableBuilder;
+
+    private TextTableBuilder columnarTextTableBuilder;
+
+    private static TextTableBuilder populate(final TextTableBuilder textTableBuilder) {
+        textTableBuilder.setHeaders("h1", "h2", "h3")
+                        .setColumnAlignments(LEFT, RIGHT, LEFT)
+                        .setShowRowNums(true)
+                        .setRepeatHeadersEveryXRows(7);
+        // enough rows to grow the column arrays a few times
+        for (int i = 0; i < NUM_ROWS; i++) {
+            textTableBuilder.addRow("r" + i, (i % 3 == 0) ? null : i, Arrays.asList(i, i));
+        }
+        return textTableBuilder;
+    }
+
+    @Before
+    public void setUp() {
+        rowTextTableBuilder = populate(new TextTableBuilder());
+        columnarTextTableBuilder = populate(new TextTableBuilder().columnarStorage());
+    }
+
+    @Test
+    public void testDefaultColumnarStorage() {
+        assertFalse(
+                "Default state columnar storage is incorrect",
+                new TextTableBuilder().getColumnarStorage()
+        );
+    }
+
+    @Test
+    public void testSetAndGetColumnarStorage() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder();
+        for (final boolean columnarStorage : new boolean[]{true, false}) {
+            textTableBuilder.setColumnarStorage(columnarStorage);
+            assertEquals(
+                    GETTER_SETTER_VALUE_NOT_EQUAL,
+                    columnarStorage,
+                    textTableBuilder.getColumnarStorage()
+            );
+        }
+    }
+
+    @Test
+    public void testGetRows() {
+        assertEquals(
+                NOT_SAME_AS_ROW_STORAGE,
+                rowTextTableBuilder.getRows(),
+                columnarTextTableBuilder.getRows()
+        );
+    }
+
+    @Test
+    public void testGetRowsForDefensiveCopying() {
+        final List<List<Object>> rows = columnarTextTableBuilder.getRows();
+        rows.get(0).set(0, "changed");
+        assertEquals(
+                GETTER_NO_DEFENSIVE_COPY,
+                "r0",
+                columnarTextTableBuilder.getRows().get(0).get(0)
+        );
+    }
+
+    @Test
+    public void testGetNumRows() {
+        assertEquals(NOT_SAME_AS_ROW_STORAGE, NUM_ROWS, columnarTextTableBuilder.getNumRows());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals(
+                NOT_SAME_AS_ROW_STORAGE,
+                rowTextTableBuilder.toString(),
+                columnarTextTableBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        assertEquals(
+                EQUAL_TO_INSTANCE_WITH_SAME_VALUES,
+                rowTextTableBuilder,
+                columnarTextTableBuilder
+        );
+        assertEquals(
+                HASH_CODE_MUST_BE_SAME,
+                rowTextTableBuilder.hashCode(),
+                columnarTextTableBuilder.hashCode()
+        );
+    }
+
+    @Test
+    public void testSwitchStorageKeepsRows() {
+        rowTextTableBuilder.columnarStorage();
+        assertEquals(
+                NOT_SAME_AS_ROW_STORAGE,
+                columnarTextTableBuilder.getRows(),
+                rowTextTableBuilder.getRows()
+        );
+        columnarTextTableBuilder.setColumnarStorage(false);
+        assertEquals(
+                NOT_SAME_AS_ROW_STORAGE,
+                rowTextTableBuilder.getRows(),
+                columnarTextTableBuilder.getRows()
+        );
+    }
+
+    @Test
+    public void testClearRows() {
+        columnarTextTableBuilder.clearRows();
+        assertTrue(NOT_EMPTY_AFTER_CLEAR, columnarTextTableBuilder.getRows().isEmpty());
+        assertTrue(
+                "clearing rows must not change storage",
+                columnarTextTableBuilder.getColumnarStorage()
+        );
+        columnarTextTableBuilder.addRow("a", "b", "c");
+        assertEquals(
+                NOT_SAME_AS_ROW_STORAGE,
+                Arrays.<Object>asList("a", "b", "c"),
+                columnarTextTableBuilder.getRows().get(0)
+        );
+    }
+
+}
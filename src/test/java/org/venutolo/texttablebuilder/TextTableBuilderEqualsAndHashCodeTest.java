@@ -3,6 +3,9 @@ package org.venutolo.texttablebuilder;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.venutolo.texttablebuilder.Alignment.LEFT;
@@ -152,6 +155,15 @@ public class TextTableBuilderEqualsAndHashCodeTest {
         );
     }
 
+    @Test
+    public void testNotEqualToDifferentRowItems() {
+        assertNotEquals(
+                NOT_EQUAL_TO_INSTANCE_WITH_DIFFERENT_VALUES,
+                textTableBuilder1.addRow("r3c1", "r3c2"),
+                textTableBuilder2.addRow("r3c1", "R3C2")
+        );
+    }
+
     @Test
     public void testNotEqualToDifferentBoxDrawingCharacters() {
         assertNotEquals(
@@ -243,6 +255,66 @@ public class TextTableBuilderEqualsAndHashCodeTest {
         );
     }
 
+    @Test
+    public void testHashCodeSameForRowsAddedDifferently() {
+        final List<TextTableBuilder> textTableBuilders = Arrays.asList(
+                new TextTableBuilder().addRow(1L, 2.0).addRow(3L, 4.0),
+                new TextTableBuilder().addRow(Arrays.asList(1L, 2.0)).addRow(3L, 4.0),
+                new TextTableBuilder().adoptRow(1L, 2.0).adoptRow(3L, 4.0),
+                new TextTableBuilder().addRows(new Object[]{1L, 2.0}, new Object[]{3L, 4.0}),
+                new TextTableBuilder().columnarStorage().addRow(1L, 2.0).addRow(3L, 4.0),
+                new TextTableBuilder().addRow(0L, 0.0).clearRows().addRow(1L, 2.0).addRow(3L, 4.0)
+        );
+        for (final TextTableBuilder textTableBuilder : textTableBuilders) {
+            assertEquals(
+                    EQUAL_TO_INSTANCE_WITH_SAME_VALUES,
+                    textTableBuilders.get(0),
+                    textTableBuilder
+            );
+            assertEquals(
+                    HASH_CODE_MUST_BE_SAME,
+                    textTableBuilders.get(0).hashCode(),
+                    textTableBuilder.hashCode()
+            );
+        }
+    }
+
+    @Test
+    public void testHashCodeSameForPrimitiveRows() {
+        final TextTableBuilder longRows = new TextTableBuilder().addRow(1L, 2L);
+        final TextTableBuilder doubleRows = new TextTableBuilder().addRow(1.5, -0.0);
+        for (final boolean columnarStorage : new boolean[]{false, true}) {
+            assertEquals(
+                    HASH_CODE_MUST_BE_SAME,
+                    longRows.hashCode(),
+                    new TextTableBuilder().setColumnarStorage(columnarStorage)
+                                          .addLongRow(1L, 2L)
+                                          .hashCode()
+            );
+            assertEquals(
+                    HASH_CODE_MUST_BE_SAME,
+                    doubleRows.hashCode(),
+                    new TextTableBuilder().setColumnarStorage(columnarStorage)
+                                          .addDoubleRow(1.5, -0.0)
+                                          .hashCode()
+            );
+        }
+    }
+
+    @Test
+    public void testHashCodeSameForSnapshot() {
+        assertEquals(
+                HASH_CODE_MUST_BE_SAME,
+                textTableBuilder1.build().hashCode(),
+                textTableBuilder2.build().hashCode()
+        );
+        assertNotEquals(
+                HASH_CODE_MUST_BE_DISTINCT,
+                textTableBuilder1.build().hashCode(),
+                textTableBuilder2.addRow("r3c1", "r3c2").build().hashCode()
+        );
+    }
+
     @Test
     public void testHashCodeDifferentHeaderAlignments() {
         assertNotEquals(
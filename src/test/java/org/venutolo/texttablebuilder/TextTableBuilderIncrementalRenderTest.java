@@ -0,0 +1,148 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.BoxDrawingCharacters.ASCII;
+import static org.venutolo.texttablebuilder.TestStrings.GETTER_SETTER_VALUE_NOT_EQUAL;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderIncrementalRenderTest {
+
+    private static final String NOT_SAME_AS_FULL_RENDER =
+            "incremental render is not equal to a full render";
+
+    private TextTableBuilder textTableBuilder;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .incrementalRender()
+                .setHeaders("h1", "h2")
+                .setColumnAlignments(LEFT, RIGHT)
+                .setLinePrepender(">")
+                .setLineAppender("<")
+                .addRow("aaaa", "bbbb");
+    }
+
+    private void assertSameAsFullRender() {
+        assertEquals(
+                NOT_SAME_AS_FULL_RENDER,
+                ToStringBuilder.getToStringFor(textTableBuilder),
+                textTableBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testDefaultIncrementalRender() {
+        assertFalse(
+                "Default state incremental render is incorrect",
+                new TextTableBuilder().getIncrementalRender()
+        );
+    }
+
+    @Test
+    public void testSetAndGetIncrementalRender() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder();
+        for (final boolean incrementalRender : new boolean[]{true, false}) {
+            textTableBuilder.setIncrementalRender(incrementalRender);
+            assertEquals(
+                    GETTER_SETTER_VALUE_NOT_EQUAL,
+                    incrementalRender,
+                    textTableBuilder.getIncrementalRender()
+            );
+        }
+    }
+
+    @Test
+    public void testAppendRowsToString() {
+        textTableBuilder.setRepeatHeadersEveryXRows(3).setRepeatHeadersAtBottom(true);
+        assertSameAsFullRender();
+        // cover appending after rows both with and without repeated headers after them
+        for (int i = 0; i < 10; i++) {
+            textTableBuilder.addRow("a", null);
+            assertSameAsFullRender();
+            textTableBuilder.addLongRow(i, i);
+            textTableBuilder.addDoubleRow(i, i);
+            assertSameAsFullRender();
+        }
+    }
+
+    @Test
+    public void testAppendRowsWithRowNumsToString() {
+        textTableBuilder.setShowRowNums(true).setRowNumFormat(new DecimalFormat("0"));
+        // row number column gets wider at row 10 and row 100
+        for (int i = 0; i < 120; i++) {
+            textTableBuilder.addRow("a", "b");
+            assertSameAsFullRender();
+        }
+    }
+
+    @Test
+    public void testAppendRowsToEmptyTableToString() {
+        textTableBuilder = new TextTableBuilder().incrementalRender();
+        assertSameAsFullRender();
+        textTableBuilder.addRow("a");
+        assertSameAsFullRender();
+        textTableBuilder.addRow("b");
+        assertSameAsFullRender();
+    }
+
+    @Test
+    public void testAppendRowsDoesNotRenderRowsAgain() {
+        final CountingItem item = new CountingItem("item");
+        textTableBuilder.addRow(item, "b");
+        textTableBuilder.toString();
+        final int itemToStringCount = item.getToStringCount();
+        textTableBuilder.addRow("a", "b");
+        assertSameAsFullRender();
+        // the full render above calls toString() once, the incremental render not at all
+        assertEquals(
+                "rendered row was rendered again",
+                itemToStringCount + 1,
+                item.getToStringCount()
+        );
+    }
+
+    @Test
+    public void testWiderRowRendersRowsAgain() {
+        final CountingItem item = new CountingItem("item");
+        textTableBuilder.addRow(item, "b");
+        textTableBuilder.toString();
+        final int itemToStringCount = item.getToStringCount();
+        textTableBuilder.addRow("aaaaaaaaaa", "b");
+        textTableBuilder.toString();
+        assertEquals(
+                "rows were not rendered again after a column got wider",
+                itemToStringCount + 1,
+                item.getToStringCount()
+        );
+        assertSameAsFullRender();
+    }
+
+    @Test
+    public void testChangesAfterIncrementalRenderToString() {
+        textTableBuilder.toString();
+        textTableBuilder.setBoxDrawingCharacters(ASCII);
+        assertSameAsFullRender();
+        textTableBuilder.addRow("a", "b");
+        textTableBuilder.setHeaders("header1", "header2");
+        assertSameAsFullRender();
+        textTableBuilder.clearRows();
+        assertSameAsFullRender();
+        textTableBuilder.addRow("a", "b");
+        assertSameAsFullRender();
+        textTableBuilder.setIncrementalRender(false);
+        textTableBuilder.addRow("a", "b");
+        assertSameAsFullRender();
+    }
+
+}
@@ -0,0 +1,210 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderPageTest {
+
+    private static final String PAGE_NOT_AS_EXPECTED = "page is not the expected lines of the table";
+
+    private static final String INVALID_ROW_RANGE_MESSAGE_SUBSTRING = "Invalid row range";
+
+    private static final String EXPECTED_IAE_FOR_INVALID_ROW_RANGE =
+            "expected IAE for invalid row range";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private List<String> tableLines;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2")
+                .setShowRowNums(true)
+                .setLinePrepender(">")
+                .addRow("a", "b")
+                .addRow("a much wider item", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "b")
+                .addRow("a", "the last row");
+        tableLines = Arrays.asList(textTableBuilder.toString().split("\n"));
+    }
+
+    private static String join(final List<String> lines) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (final String line : lines) {
+            if (stringBuilder.length() != 0) {
+                stringBuilder.append('\n');
+            }
+            stringBuilder.append(line);
+        }
+        return stringBuilder.toString();
+    }
+
+    // lines of the whole table without repeated headers: top, header, interior, rows, bottom
+    private String expectedPage(final int fromRow, final int toRow, final boolean showHeaders) {
+        final List<String> lines = new ArrayList<String>();
+        lines.add(tableLines.get(0));
+        if (showHeaders) {
+            lines.add(tableLines.get(1));
+            lines.add(tableLines.get(2));
+        }
+        lines.addAll(tableLines.subList(3 + fromRow, 3 + toRow));
+        lines.add(tableLines.get(tableLines.size() - 1));
+        return join(lines);
+    }
+
+    private void assertPage(final int fromRow, final int toRow, final boolean showHeaders)
+            throws IOException {
+        final String expected = expectedPage(fromRow, toRow, showHeaders);
+        assertEquals(
+                PAGE_NOT_AS_EXPECTED,
+                expected,
+                textTableBuilder.toString(fromRow, toRow, showHeaders)
+        );
+        assertEquals(
+                PAGE_NOT_AS_EXPECTED,
+                expected,
+                textTableBuilder.render(new StringBuilder(), fromRow, toRow, showHeaders).toString()
+        );
+    }
+
+    @Test
+    public void testWholeTablePage() {
+        assertEquals(
+                PAGE_NOT_AS_EXPECTED,
+                textTableBuilder.toString(),
+                textTableBuilder.toString(0, textTableBuilder.getNumRows(), true)
+        );
+    }
+
+    @Test
+    public void testPages() throws IOException {
+        for (final boolean showHeaders : new boolean[]{true, false}) {
+            // pages that do not include the widest items still use their widths
+            assertPage(0, 1, showHeaders);
+            assertPage(2, 5, showHeaders);
+            assertPage(5, 10, showHeaders);
+            assertPage(9, 10, showHeaders);
+        }
+    }
+
+    @Test
+    public void testEmptyPage() throws IOException {
+        assertPage(3, 3, true);
+        assertPage(3, 3, false);
+    }
+
+    @Test
+    public void testPageWithRepeatingHeaders() {
+        textTableBuilder.setRepeatHeadersEveryXRows(3).setRepeatHeadersAtBottom(true);
+        final String page = textTableBuilder.toString(2, 7, true);
+        final List<String> lines = Arrays.asList(page.split("\n"));
+        // top, header, interior, row 3, interior, header, interior, rows 4-6, interior, header,
+        // interior, row 7, interior, header, bottom
+        assertEquals(PAGE_NOT_AS_EXPECTED, 17, lines.size());
+        assertEquals(PAGE_NOT_AS_EXPECTED, lines.get(1), lines.get(5));
+        assertEquals(PAGE_NOT_AS_EXPECTED, lines.get(1), lines.get(11));
+        assertEquals(PAGE_NOT_AS_EXPECTED, lines.get(1), lines.get(15));
+        assertEquals(PAGE_NOT_AS_EXPECTED, tableLines.get(0), lines.get(0));
+        assertEquals(
+                PAGE_NOT_AS_EXPECTED,
+                tableLines.get(tableLines.size() - 1),
+                lines.get(lines.size() - 1)
+        );
+        // headers repeated after the last row are not repeated again at the bottom
+        final List<String> lastRowsLines = Arrays.asList(
+                textTableBuilder.toString(4, 6, true).split("\n")
+        );
+        // top, header, interior, rows 5-6, interior, header, bottom
+        assertEquals(PAGE_NOT_AS_EXPECTED, 8, lastRowsLines.size());
+    }
+
+    @Test
+    public void testPageWithoutHeadersDoesNotRepeatHeaders() throws IOException {
+        textTableBuilder.setRepeatHeadersEveryXRows(3).setRepeatHeadersAtBottom(true);
+        tableLines = Arrays.asList(
+                new TextTableBuilder()
+                        .setShowRowNums(true)
+                        .setLinePrepender(">")
+                        .addRow("a", "b")
+                        .addRow("a much wider item", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "b")
+                        .addRow("a", "the last row")
+                        .toString()
+                        .split("\n")
+        );
+        // without headers, rows start at the second line
+        final List<String> lines = Arrays.asList(
+                textTableBuilder.toString(2, 7, false).split("\n")
+        );
+        assertEquals(PAGE_NOT_AS_EXPECTED, tableLines.subList(3, 8), lines.subList(1, 6));
+        assertEquals(PAGE_NOT_AS_EXPECTED, 7, lines.size());
+    }
+
+    @Test
+    public void testPageForNegativeFromRow() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(INVALID_ROW_RANGE_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_INVALID_ROW_RANGE);
+        textTableBuilder.toString(-1, 1, true);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testPageForFromRowAfterToRow() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(INVALID_ROW_RANGE_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_INVALID_ROW_RANGE);
+        textTableBuilder.toString(2, 1, true);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testPageForToRowAfterLastRow() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(INVALID_ROW_RANGE_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_INVALID_ROW_RANGE);
+        textTableBuilder.toString(0, 11, true);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderPageForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage("expected IAE for null destination");
+        textTableBuilder.render(null, 0, 1, true);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
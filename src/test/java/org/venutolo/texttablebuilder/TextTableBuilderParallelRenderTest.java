@@ -0,0 +1,248 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderParallelRenderTest {
+
+    // enough rows for several blocks, with a partial last block
+    private static final int NUM_ROWS = 5000;
+
+    private static final String NOT_SAME_AS_SERIAL_RENDER =
+            "parallel render is not equal to serial render";
+
+    private static final String EXPECTED_IAE_FOR_NULL_EXECUTOR =
+            "expected IAE for null executor";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ExecutorService executorService;
+
+    private TextTableBuilder textTableBuilder;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2", "h3")
+                .setColumnAlignments(LEFT, RIGHT, LEFT)
+                .setShowRowNums(true)
+                .setRowNumFormat(new DecimalFormat("#,##0"))
+                .setLinePrepender(">")
+                .setLineAppender("<")
+                .setNullColumnReplacement("NULL");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            textTableBuilder.addRow("r" + i, (i % 3 == 0) ? null : i, i * 0.5);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private void assertSameAsSerialRender() throws IOException {
+        final String expected = ToStringBuilder.getToStringFor(textTableBuilder);
+        assertEquals(
+                NOT_SAME_AS_SERIAL_RENDER,
+                expected,
+                textTableBuilder.render(new StringBuilder(), executorService).toString()
+        );
+        assertEquals(
+                NOT_SAME_AS_SERIAL_RENDER,
+                expected,
+                textTableBuilder.toString(executorService)
+        );
+    }
+
+    @Test
+    public void testParallelRender() throws IOException {
+        assertSameAsSerialRender();
+    }
+
+    @Test
+    public void testParallelRenderWithRepeatingHeaders() throws IOException {
+        // headers repeated within blocks, at block boundaries and after the last row
+        for (final int repeatHeadersEveryXRows : new int[]{7, 512, 1024, 1000}) {
+            textTableBuilder.setRepeatHeadersEveryXRows(repeatHeadersEveryXRows);
+            for (final boolean repeatHeadersAtBottom : new boolean[]{false, true}) {
+                textTableBuilder.setRepeatHeadersAtBottom(repeatHeadersAtBottom);
+                assertSameAsSerialRender();
+            }
+        }
+    }
+
+    @Test
+    public void testParallelRenderWithoutHeaders() throws IOException {
+        textTableBuilder.clearHeaders().setShowRowNums(false).setRepeatHeadersEveryXRows(10);
+        assertSameAsSerialRender();
+    }
+
+    @Test
+    public void testParallelRenderSmallTable() throws IOException {
+        textTableBuilder.clearRows().addRow("a", "b", "c");
+        assertSameAsSerialRender();
+    }
+
+    @Test
+    public void testParallelRenderEmptyTable() throws IOException {
+        textTableBuilder = new TextTableBuilder();
+        assertSameAsSerialRender();
+    }
+
+    @Test
+    public void testParallelRenderWithPrimitiveRows() throws IOException {
+        textTableBuilder = new TextTableBuilder().columnarStorage();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            textTableBuilder.addLongRow(i, -i);
+        }
+        assertSameAsSerialRender();
+    }
+
+    private static boolean isBlock(final CharSequence chars) {
+        // every other write is a single line, which starts with its line separator
+        int numLineSeparators = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            if (chars.charAt(i) == '\n') {
+                numLineSeparators++;
+            }
+        }
+        return numLineSeparators > 1;
+    }
+
+    @Test
+    public void testParallelRenderLimitsBlocksInFlight() throws IOException {
+        // more blocks than are rendered ahead at once, all of them full
+        final int maxBlocksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        textTableBuilder.clearRows();
+        for (int i = 0; i < ((maxBlocksInFlight + 2) * 1024); i++) {
+            textTableBuilder.addRow("r" + i, i, null);
+        }
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                2,
+                2,
+                0,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>()
+        );
+        try {
+            final StringBuilder rendered = new StringBuilder();
+            final long[] blocks = new long[2];
+            textTableBuilder.render(
+                    new Appendable() {
+                        @Override
+                        public Appendable append(final CharSequence csq) {
+                            if (isBlock(csq)) {
+                                // blocks submitted and not yet written, besides this one
+                                blocks[0]++;
+                                blocks[1] = Math.max(
+                                        blocks[1],
+                                        threadPoolExecutor.getTaskCount() - blocks[0]
+                                );
+                            }
+                            return rendered.append(csq);
+                        }
+
+                        @Override
+                        public Appendable append(
+                                final CharSequence csq,
+                                final int start,
+                                final int end
+                        ) {
+                            return append(csq.subSequence(start, end));
+                        }
+
+                        @Override
+                        public Appendable append(final char c) {
+                            return rendered.append(c);
+                        }
+                    },
+                    threadPoolExecutor
+            );
+            assertEquals(
+                    NOT_SAME_AS_SERIAL_RENDER,
+                    ToStringBuilder.getToStringFor(textTableBuilder),
+                    rendered.toString()
+            );
+            assertEquals("wrong number of blocks", maxBlocksInFlight + 2, blocks[0]);
+            assertTrue("too many blocks in flight", blocks[1] <= maxBlocksInFlight);
+        } finally {
+            threadPoolExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testToStringUsesRenderCache() {
+        final String first = textTableBuilder.toString(executorService);
+        assertSame("toString() was not cached", first, textTableBuilder.toString());
+        assertEquals("wrong number of render cache hits", 1, textTableBuilder.getRenderCacheHits());
+    }
+
+    @Test
+    public void testItemExceptionIsRethrown() throws IOException {
+        // measured when added, so only fails when rendered
+        textTableBuilder.addRow(
+                new Object() {
+                    private boolean measured;
+
+                    @Override
+                    public String toString() {
+                        if (measured) {
+                            throw new UnsupportedOperationException("render failed");
+                        }
+                        measured = true;
+                        return "item";
+                    }
+                },
+                "b",
+                "c"
+        );
+        expectedException.expect(UnsupportedOperationException.class);
+        expectedException.expectMessage("render failed");
+        textTableBuilder.render(new StringBuilder(), executorService);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testToStringForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_EXECUTOR);
+        textTableBuilder.toString(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_EXECUTOR);
+        textTableBuilder.render(new StringBuilder(), null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
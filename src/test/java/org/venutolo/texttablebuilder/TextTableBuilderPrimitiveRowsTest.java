@@ -0,0 +1,160 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_NULL_LIST;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderPrimitiveRowsTest {
+
+    private static final String NOT_SAME_AS_BOXED =
+            "primitive row did not behave the same as a row of boxed items";
+
+    private static final boolean[] columnarStorageValues = {false, true};
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder boxedTextTableBuilder;
+
+    @Before
+    public void setUp() {
+        boxedTextTableBuilder = newTextTableBuilder(false)
+                .addRow(1L, -22L, Long.MIN_VALUE)
+                .addRow(333L, 0L, Long.MAX_VALUE)
+                .addRow(0.5, -1.0E-10, Double.NaN)
+                .addRow("a", null, 4L);
+    }
+
+    private static TextTableBuilder newTextTableBuilder(final boolean columnarStorage) {
+        return new TextTableBuilder()
+                .setColumnarStorage(columnarStorage)
+                .setHeaders("h1", "h2", "h3")
+                .setColumnAlignments(LEFT, RIGHT, RIGHT)
+                .setNullColumnReplacement("N")
+                .showRowNums();
+    }
+
+    private static TextTableBuilder addPrimitiveRows(final TextTableBuilder textTableBuilder) {
+        return textTableBuilder
+                .addLongRow(1L, -22L, Long.MIN_VALUE)
+                .addLongRow(333L, 0L, Long.MAX_VALUE)
+                .addDoubleRow(0.5, -1.0E-10, Double.NaN)
+                .addRow("a", null, 4L);
+    }
+
+    @Test
+    public void testGetRows() {
+        for (final boolean columnarStorage : columnarStorageValues) {
+            final List<List<Object>> rows =
+                    addPrimitiveRows(newTextTableBuilder(columnarStorage)).getRows();
+            assertEquals(NOT_SAME_AS_BOXED, boxedTextTableBuilder.getRows(), rows);
+        }
+    }
+
+    @Test
+    public void testToString() {
+        for (final boolean columnarStorage : columnarStorageValues) {
+            assertEquals(
+                    NOT_SAME_AS_BOXED,
+                    boxedTextTableBuilder.toString(),
+                    addPrimitiveRows(newTextTableBuilder(columnarStorage)).toString()
+            );
+        }
+    }
+
+    @Test
+    public void testEquals() {
+        for (final boolean columnarStorage : columnarStorageValues) {
+            assertEquals(
+                    NOT_SAME_AS_BOXED,
+                    boxedTextTableBuilder,
+                    addPrimitiveRows(newTextTableBuilder(columnarStorage))
+            );
+        }
+    }
+
+    @Test
+    public void testDoubleRowsFirst() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder()
+                .columnarStorage()
+                .addDoubleRow(1.25, 2)
+                .addDoubleRow(-3, 1.0E20);
+        final TextTableBuilder expected = new TextTableBuilder()
+                .addRow(1.25, 2.0)
+                .addRow(-3.0, 1.0E20);
+        assertEquals(NOT_SAME_AS_BOXED, expected.getRows(), textTableBuilder.getRows());
+        assertEquals(NOT_SAME_AS_BOXED, expected.toString(), textTableBuilder.toString());
+    }
+
+    @Test
+    public void testMixedPrimitiveRows() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder()
+                .columnarStorage()
+                .addLongRow(1, 2)
+                .addDoubleRow(1.5, 2.5)
+                .addLongRow(3, 4);
+        assertEquals(
+                NOT_SAME_AS_BOXED,
+                Arrays.<List<Object>>asList(
+                        Arrays.<Object>asList(1L, 2L),
+                        Arrays.<Object>asList(1.5, 2.5),
+                        Arrays.<Object>asList(3L, 4L)
+                ),
+                textTableBuilder.getRows()
+        );
+    }
+
+    @Test
+    public void testAddLongRowForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_LIST);
+        boxedTextTableBuilder.addLongRow((long[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddLongRowForBadLength() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("expected 3 columns");
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        boxedTextTableBuilder.addLongRow(1, 2);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddDoubleRowForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_LIST);
+        boxedTextTableBuilder.addDoubleRow((double[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testAddDoubleRowForBadLength() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        new TextTableBuilder().addRow("a", "b").addDoubleRow(1.0);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.BoxDrawingCharacters.ASCII;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderRenderCacheTest {
+
+    private static final String CACHE_NOT_INVALIDATED =
+            "render cache was not invalidated by a change";
+
+    private static final String WRONG_HITS = "wrong number of render cache hits";
+
+    private static final String WRONG_MISSES = "wrong number of render cache misses";
+
+    private TextTableBuilder textTableBuilder;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2")
+                .addRow("a", "b");
+    }
+
+    private void assertInvalidated(final String before) {
+        final String after = textTableBuilder.toString();
+        assertNotSame(CACHE_NOT_INVALIDATED, before, after);
+        assertEquals(
+                CACHE_NOT_INVALIDATED,
+                ToStringBuilder.getToStringFor(textTableBuilder),
+                after
+        );
+    }
+
+    @Test
+    public void testDefaultCounters() {
+        final TextTableBuilder emptyTextTableBuilder = new TextTableBuilder();
+        assertEquals(WRONG_HITS, 0, emptyTextTableBuilder.getRenderCacheHits());
+        assertEquals(WRONG_MISSES, 0, emptyTextTableBuilder.getRenderCacheMisses());
+    }
+
+    @Test
+    public void testToStringIsCached() {
+        final String first = textTableBuilder.toString();
+        assertSame("toString() was not cached", first, textTableBuilder.toString());
+        assertSame("toString() was not cached", first, textTableBuilder.toString());
+        assertEquals(WRONG_HITS, 2, textTableBuilder.getRenderCacheHits());
+        assertEquals(WRONG_MISSES, 1, textTableBuilder.getRenderCacheMisses());
+    }
+
+    @Test
+    public void testRenderUsesCache() throws IOException {
+        final String expected = textTableBuilder.toString();
+        assertEquals(
+                "render did not use cache",
+                expected,
+                textTableBuilder.render(new StringBuilder()).toString()
+        );
+        final StringWriter stringWriter = new StringWriter();
+        textTableBuilder.writeTo(stringWriter);
+        assertEquals("writeTo did not use cache", expected, stringWriter.toString());
+        assertEquals(WRONG_HITS, 2, textTableBuilder.getRenderCacheHits());
+        assertEquals(WRONG_MISSES, 1, textTableBuilder.getRenderCacheMisses());
+    }
+
+    @Test
+    public void testRenderDoesNotFillCache() throws IOException {
+        textTableBuilder.render(new StringBuilder());
+        textTableBuilder.toString();
+        assertEquals(WRONG_HITS, 0, textTableBuilder.getRenderCacheHits());
+        assertEquals(WRONG_MISSES, 1, textTableBuilder.getRenderCacheMisses());
+    }
+
+    @Test
+    public void testAddRowInvalidatesCache() {
+        final String before = textTableBuilder.toString();
+        textTableBuilder.addRow("c", "d");
+        assertInvalidated(before);
+        assertEquals(WRONG_MISSES, 2, textTableBuilder.getRenderCacheMisses());
+    }
+
+    @Test
+    public void testAddPrimitiveRowInvalidatesCache() {
+        String before = textTableBuilder.toString();
+        textTableBuilder.addLongRow(1, 2);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.addDoubleRow(1, 2);
+        assertInvalidated(before);
+    }
+
+    @Test
+    public void testClearInvalidatesCache() {
+        String before = textTableBuilder.toString();
+        textTableBuilder.clearRows();
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.clearHeaders();
+        assertInvalidated(before);
+        textTableBuilder.setHeaderAlignments(RIGHT, RIGHT);
+        before = textTableBuilder.toString();
+        textTableBuilder.clearHeaderAlignments();
+        assertInvalidated(before);
+        textTableBuilder.setColumnAlignments(RIGHT, RIGHT);
+        before = textTableBuilder.toString();
+        textTableBuilder.clearColumnAlignments();
+        assertInvalidated(before);
+    }
+
+    @Test
+    public void testSettersInvalidateCache() {
+        String before = textTableBuilder.toString();
+        textTableBuilder.setHeaders("h3", "h4");
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setHeaderAlignments(RIGHT, RIGHT);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setColumnAlignments(RIGHT, RIGHT);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setBoxDrawingCharacters(ASCII);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setRepeatHeadersEveryXRows(1);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setRepeatHeadersAtBottom(true);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setShowRowNums(true);
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setRowNumHeader("r");
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setRowNumFormat(new DecimalFormat("00"));
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setLinePrepender(">");
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setLineAppender("<");
+        assertInvalidated(before);
+        before = textTableBuilder.toString();
+        textTableBuilder.setNullColumnReplacement("NULL");
+        assertInvalidated(before);
+    }
+
+    @Test
+    public void testTableLinesReusedForSameWidths() {
+        textTableBuilder.toString();
+        final TableLines tableLines = textTableBuilder.getTableLines();
+        textTableBuilder.addRow("c", "d");
+        assertEquals(
+                CACHE_NOT_INVALIDATED,
+                "┌────┬────┐\n"
+                + "│ h1 │ h2 │\n"
+                + "├────┼────┤\n"
+                + "│ a  │ b  │\n"
+                + "│ c  │ d  │\n"
+                + "└────┴────┘",
+                textTableBuilder.toString()
+        );
+        assertSame("table lines were not reused", tableLines, textTableBuilder.getTableLines());
+    }
+
+    @Test
+    public void testTableLinesNotReusedForDifferentWidths() {
+        final String before = textTableBuilder.toString();
+        final TableLines tableLines = textTableBuilder.getTableLines();
+        textTableBuilder.addRow("a wider item", "d");
+        assertInvalidated(before);
+        assertNotSame("table lines were reused", tableLines, textTableBuilder.getTableLines());
+    }
+
+    @Test
+    public void testTableLinesNotReusedAfterSetter() {
+        textTableBuilder.toString();
+        final TableLines tableLines = textTableBuilder.getTableLines();
+        textTableBuilder.setLinePrepender(">");
+        assertEquals(
+                CACHE_NOT_INVALIDATED,
+                ToStringBuilder.getToStringFor(new TextTableBuilder()
+                                                       .setHeaders("h1", "h2")
+                                                       .addRow("a", "b")
+                                                       .setLinePrepender(">")),
+                textTableBuilder.toString()
+        );
+        assertNotSame("table lines were reused", tableLines, textTableBuilder.getTableLines());
+    }
+
+}
@@ -0,0 +1,196 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.venutolo.texttablebuilder.RenderStats.UNKNOWN;
+import static org.venutolo.texttablebuilder.TestStrings.EQUAL_TO_INSTANCE_WITH_SAME_VALUES;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderRenderListenerTest {
+
+    private static final int NUM_ROWS = 20;
+
+    private static final String WRONG_NUM_RENDERS = "wrong number of renders reported";
+
+    private static final String WRONG_NUM_ROWS = "wrong number of rows reported";
+
+    private static final String WRONG_NUM_ITEMS = "wrong number of items reported";
+
+    private static final String WRONG_NUM_CHARS = "wrong number of chars reported";
+
+    private static final String WRONG_NUM_BYTES = "wrong number of bytes reported";
+
+    private TextTableBuilder textTableBuilder;
+
+    private List<RenderStats> renders;
+
+    @Before
+    public void setUp() {
+        renders = new ArrayList<RenderStats>();
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2", "h3")
+                .setShowRowNums(true)
+                .setRenderListener(
+                        new RenderListener() {
+                            @Override
+                            public void rendered(final RenderStats renderStats) {
+                                renders.add(renderStats);
+                            }
+                        }
+                );
+        for (int i = 0; i < NUM_ROWS; i++) {
+            textTableBuilder.addRow("r" + i, i, (i % 3 == 0) ? null : "item");
+        }
+    }
+
+    private RenderStats getOnlyRender() {
+        assertEquals(WRONG_NUM_RENDERS, 1, renders.size());
+        return renders.get(0);
+    }
+
+    private static void assertRendered(
+            final RenderStats renderStats,
+            final int numRows,
+            final long numChars
+    ) {
+        assertFalse("render reported as cache hit", renderStats.isCacheHit());
+        assertEquals(WRONG_NUM_ROWS, numRows, renderStats.getNumRows());
+        assertEquals(WRONG_NUM_ITEMS, numRows * 3L, renderStats.getNumItems());
+        assertEquals(WRONG_NUM_CHARS, numChars, renderStats.getNumChars());
+        assertTrue("negative measure time", renderStats.getMeasureNanos() >= 0);
+        assertTrue("negative emit time", renderStats.getEmitNanos() >= 0);
+        assertTrue(
+                "allocation neither measured nor unknown",
+                (renderStats.getAllocatedBytes() == UNKNOWN)
+                || (renderStats.getAllocatedBytes() >= 0)
+        );
+    }
+
+    @Test
+    public void testDefaultRenderListener() {
+        assertNull("listener by default", new TextTableBuilder().getRenderListener());
+    }
+
+    @Test
+    public void testToString() {
+        final String rendered = textTableBuilder.toString();
+        final RenderStats renderStats = getOnlyRender();
+        assertRendered(renderStats, NUM_ROWS, rendered.length());
+        assertEquals(WRONG_NUM_BYTES, UNKNOWN, renderStats.getNumBytes());
+    }
+
+    @Test
+    public void testToStringCacheHit() {
+        final String rendered = textTableBuilder.toString();
+        textTableBuilder.toString();
+        assertEquals(WRONG_NUM_RENDERS, 2, renders.size());
+        final RenderStats renderStats = renders.get(1);
+        assertTrue("cache hit not reported", renderStats.isCacheHit());
+        assertEquals(WRONG_NUM_ROWS, NUM_ROWS, renderStats.getNumRows());
+        assertEquals(WRONG_NUM_CHARS, rendered.length(), renderStats.getNumChars());
+        assertEquals("measure time for cache hit", 0, renderStats.getMeasureNanos());
+        assertEquals("emit time for cache hit", 0, renderStats.getEmitNanos());
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        final StringWriter stringWriter = new StringWriter();
+        textTableBuilder.writeTo(stringWriter);
+        assertRendered(getOnlyRender(), NUM_ROWS, stringWriter.toString().length());
+    }
+
+    @Test
+    public void testWriteUtf8To() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        textTableBuilder.writeUtf8To(outputStream);
+        final RenderStats renderStats = getOnlyRender();
+        assertRendered(renderStats, NUM_ROWS, textTableBuilder.toString().length());
+        assertEquals(WRONG_NUM_BYTES, outputStream.size(), renderStats.getNumBytes());
+    }
+
+    @Test
+    public void testWriteUtf8ToCacheHit() throws IOException {
+        final String rendered = textTableBuilder.toString();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        textTableBuilder.writeUtf8To(outputStream);
+        assertEquals(WRONG_NUM_RENDERS, 2, renders.size());
+        final RenderStats renderStats = renders.get(1);
+        assertTrue("cache hit not reported", renderStats.isCacheHit());
+        assertEquals(WRONG_NUM_CHARS, rendered.length(), renderStats.getNumChars());
+        assertEquals(WRONG_NUM_BYTES, outputStream.size(), renderStats.getNumBytes());
+    }
+
+    @Test
+    public void testRenderPage() {
+        final String rendered = textTableBuilder.toString(5, 12, true);
+        assertRendered(getOnlyRender(), 7, rendered.length());
+    }
+
+    @Test
+    public void testToStringInParallel() {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final String rendered = textTableBuilder.toString(executorService);
+            assertRendered(getOnlyRender(), NUM_ROWS, rendered.length());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIncrementalRender() {
+        textTableBuilder.incrementalRender().toString();
+        textTableBuilder.addRow("r", 0, "item");
+        final String rendered = textTableBuilder.toString();
+        assertEquals(WRONG_NUM_RENDERS, 2, renders.size());
+        // only the appended row was rendered again
+        assertRendered(renders.get(1), 1, rendered.length());
+    }
+
+    @Test
+    public void testSetRenderListenerToNull() {
+        textTableBuilder.setRenderListener(null);
+        assertNull("listener was not removed", textTableBuilder.getRenderListener());
+        textTableBuilder.toString();
+        assertEquals(WRONG_NUM_RENDERS, 0, renders.size());
+    }
+
+    @Test
+    public void testRenderListenerDoesNotChangeRender() {
+        final String rendered = textTableBuilder.toString();
+        final TextTableBuilder withoutListener = new TextTableBuilder()
+                .setHeaders("h1", "h2", "h3")
+                .setShowRowNums(true);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            withoutListener.addRow("r" + i, i, (i % 3 == 0) ? null : "item");
+        }
+        assertEquals("listener changed the render", withoutListener.toString(), rendered);
+        assertEquals(EQUAL_TO_INSTANCE_WITH_SAME_VALUES, withoutListener, textTableBuilder);
+    }
+
+    @Test
+    public void testSetRenderListenerReturnsSameInstance() {
+        assertSame(
+                "setRenderListener() did not return this instance",
+                textTableBuilder,
+                textTableBuilder.setRenderListener(null)
+        );
+    }
+
+}
@@ -0,0 +1,186 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderRenderTest {
+
+    private static final String RENDER_NOT_EQUAL_TO_STRING =
+            "rendered output is not equal to toString()";
+
+    private static final String EXPECTED_IAE_FOR_NULL_DESTINATION =
+            "expected IAE for null destination";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h", "hh", "hhh")
+                .setHeaderAlignments(LEFT, RIGHT, RIGHT)
+                .setColumnAlignments(RIGHT, LEFT, RIGHT)
+                .setRepeatHeadersEveryXRows(2)
+                .setRepeatHeadersAtBottom(true)
+                .setShowRowNums(true)
+                .setRowNumHeader("r")
+                .setRowNumFormat(new DecimalFormat("00"))
+                .setLinePrepender(">")
+                .setLineAppender("<")
+                .setNullColumnReplacement("NULL")
+                .addRow("aaaa", null, "c")
+                .addRow("aaa", "b", "cccc")
+                .addRow(null, "bb", "ccc");
+    }
+
+    @Test
+    public void testRenderToStringBuilder() throws IOException {
+        assertEquals(
+                RENDER_NOT_EQUAL_TO_STRING,
+                textTableBuilder.toString(),
+                textTableBuilder.render(new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testRenderReturnsAppendable() throws IOException {
+        final StringBuilder stringBuilder = new StringBuilder();
+        assertSame(
+                "render did not return the given appendable",
+                stringBuilder,
+                textTableBuilder.render(stringBuilder)
+        );
+    }
+
+    @Test
+    public void testRenderEmptyTable() throws IOException {
+        final TextTableBuilder emptyTextTableBuilder = new TextTableBuilder();
+        assertEquals(
+                RENDER_NOT_EQUAL_TO_STRING,
+                emptyTextTableBuilder.toString(),
+                emptyTextTableBuilder.render(new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testRenderAppendsOneLineAtATime() throws IOException {
+        final List<String> appended = new ArrayList<String>();
+        textTableBuilder.render(
+                new Appendable() {
+                    @Override
+                    public Appendable append(final CharSequence csq) {
+                        appended.add(csq.toString());
+                        return this;
+                    }
+
+                    @Override
+                    public Appendable append(final CharSequence csq, final int start, final int end) {
+                        return append(csq.subSequence(start, end));
+                    }
+
+                    @Override
+                    public Appendable append(final char c) {
+                        return append(String.valueOf(c));
+                    }
+                }
+        );
+        final String[] lines = textTableBuilder.toString().split("\n");
+        assertEquals("expected one append per line", lines.length, appended.size());
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(
+                    "appended line did not match",
+                    (i == 0) ? lines[i] : ("\n" + lines[i]),
+                    appended.get(i)
+            );
+        }
+    }
+
+    @Test
+    public void testRenderCallsItemToStringOnce() throws IOException {
+        final CountingItem item = new CountingItem("item");
+        textTableBuilder.addRow(item, "b", "c");
+        // items are measured once when added
+        final int itemToStringCountBeforeRender = item.getToStringCount();
+        textTableBuilder.render(new StringBuilder());
+        assertEquals(
+                "item toString() not called exactly once",
+                itemToStringCountBeforeRender + 1,
+                item.getToStringCount()
+        );
+    }
+
+    @Test
+    public void testRenderForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_DESTINATION);
+        textTableBuilder.render(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        final StringWriter stringWriter = new StringWriter();
+        textTableBuilder.writeTo(stringWriter);
+        assertEquals(
+                RENDER_NOT_EQUAL_TO_STRING,
+                textTableBuilder.toString(),
+                stringWriter.toString()
+        );
+    }
+
+    @Test
+    public void testWriteToFlushes() throws IOException {
+        final boolean[] flushed = {false};
+        textTableBuilder.writeTo(
+                new Writer() {
+                    @Override
+                    public void write(final char[] chars, final int offset, final int length) {
+                    }
+
+                    @Override
+                    public void flush() {
+                        flushed[0] = true;
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                }
+        );
+        assertTrue("writer was not flushed", flushed[0]);
+    }
+
+    @Test
+    public void testWriteToForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_DESTINATION);
+        textTableBuilder.writeTo(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -223,4 +223,33 @@ public class TextTableBuilderRowsTest {
         );
     }
 
+    @Test
+    public void testAddRowForItemThatThrows() {
+        final String before = populatedTextTableBuilder.toString();
+        final int hashCodeBefore = populatedTextTableBuilder.hashCode();
+        try {
+            populatedTextTableBuilder.addRow("a", new ThrowingItem());
+            fail("expected the item's exception");
+        } catch (final IllegalStateException e) {
+            assertEquals("wrong exception", ThrowingItem.MESSAGE, e.getMessage());
+        }
+        assertEquals("row was added", allRows, populatedTextTableBuilder.getRows());
+        assertEquals("table was changed", before, populatedTextTableBuilder.toString());
+        assertEquals("hash was changed", hashCodeBefore, populatedTextTableBuilder.hashCode());
+    }
+
+    @Test
+    public void testFirstRowThatThrowsDoesNotSetNumColumns() {
+        final TextTableBuilder textTableBuilder = new TextTableBuilder();
+        try {
+            textTableBuilder.addRow("a", new ThrowingItem());
+            fail("expected the item's exception");
+        } catch (final IllegalStateException e) {
+            assertEquals("wrong exception", ThrowingItem.MESSAGE, e.getMessage());
+        }
+        assertEquals("number of columns was set", 0, textTableBuilder.getNumColumns());
+        textTableBuilder.addRow("a");
+        assertEquals("wrong number of columns", 1, textTableBuilder.getNumColumns());
+    }
+
 }
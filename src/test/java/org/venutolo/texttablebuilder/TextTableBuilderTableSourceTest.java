@@ -0,0 +1,256 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderTableSourceTest {
+
+    private static final String NOT_SAME_AS_ADDED_ROWS =
+            "rendered source is not equal to rendering the same rows added to the builder";
+
+    private static final String EXPECTED_IAE_FOR_NULL = "expected IAE for null";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private List<List<Object>> rows;
+
+    private CountingTableSource tableSource;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("h1", "h2")
+                .setColumnAlignments(LEFT, RIGHT)
+                .setShowRowNums(true)
+                .setRowNumFormat(new DecimalFormat("00"))
+                .setRepeatHeadersEveryXRows(3)
+                .setRepeatHeadersAtBottom(true)
+                .setNullColumnReplacement("NULL");
+        rows = new ArrayList<List<Object>>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(Arrays.<Object>asList("row " + i, (i % 4 == 0) ? null : i * 100));
+        }
+        tableSource = new CountingTableSource(rows);
+    }
+
+    private String renderAddedRows() {
+        final TextTableBuilder expectedTextTableBuilder = new TextTableBuilder();
+        if (!textTableBuilder.getHeaders().isEmpty()) {
+            expectedTextTableBuilder.setHeaders(textTableBuilder.getHeaders());
+        }
+        if (!textTableBuilder.getColumnAlignments().isEmpty()) {
+            expectedTextTableBuilder.setColumnAlignments(textTableBuilder.getColumnAlignments());
+        }
+        expectedTextTableBuilder
+                .setShowRowNums(textTableBuilder.getShowRowNums())
+                .setRowNumFormat(textTableBuilder.getRowNumFormat())
+                .setRepeatHeadersEveryXRows(textTableBuilder.getRepeatHeadersEveryXRows())
+                .setRepeatHeadersAtBottom(textTableBuilder.getRepeatHeadersAtBottom())
+                .setNullColumnReplacement(textTableBuilder.getNullColumnReplacement());
+        for (final List<Object> row : rows) {
+            expectedTextTableBuilder.addRow(row);
+        }
+        return expectedTextTableBuilder.toString();
+    }
+
+    @Test
+    public void testRenderSource() throws IOException {
+        assertEquals(
+                NOT_SAME_AS_ADDED_ROWS,
+                renderAddedRows(),
+                textTableBuilder.render(tableSource, new StringBuilder()).toString()
+        );
+        assertEquals("rows not read twice", 2, tableSource.getNumOpened());
+        assertEquals("iterators not closed", 2, tableSource.getNumClosed());
+        assertEquals("builder rows were changed", 0, textTableBuilder.getNumRows());
+    }
+
+    @Test
+    public void testRenderSourceWithoutHeaders() throws IOException {
+        // without headers, the first row sets the number of columns
+        textTableBuilder = new TextTableBuilder().setRepeatHeadersEveryXRows(3);
+        assertEquals(
+                NOT_SAME_AS_ADDED_ROWS,
+                renderAddedRows(),
+                textTableBuilder.render(tableSource, new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testRenderEmptySource() throws IOException {
+        rows.clear();
+        assertEquals(
+                NOT_SAME_AS_ADDED_ROWS,
+                renderAddedRows(),
+                textTableBuilder.render(tableSource, new StringBuilder()).toString()
+        );
+    }
+
+    @Test
+    public void testRenderSourceWithColumnWidths() throws IOException {
+        // widths of the row numbers and items of the rows
+        assertEquals(
+                NOT_SAME_AS_ADDED_ROWS,
+                renderAddedRows(),
+                textTableBuilder.render(tableSource, new StringBuilder(), 2, 5, 4).toString()
+        );
+        assertEquals("rows not read once", 1, tableSource.getNumOpened());
+        assertEquals("iterator not closed", 1, tableSource.getNumClosed());
+    }
+
+    @Test
+    public void testRenderSourceWithNarrowColumnWidths() throws IOException {
+        textTableBuilder = new TextTableBuilder();
+        final String rendered =
+                textTableBuilder.render(tableSource, new StringBuilder(), 0, 0).toString();
+        // items are not truncated, so each line is as long as its items
+        assertEquals(
+                "wrong rendered line",
+                "│ row 1 │ 100 │",
+                rendered.split("\n")[2]
+        );
+    }
+
+    @Test
+    public void testRenderSourceForWrongNumberOfColumns() throws IOException {
+        rows.add(Arrays.<Object>asList("a", "b", "c"));
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        try {
+            textTableBuilder.render(tableSource, new StringBuilder());
+        } finally {
+            assertEquals("iterator not closed after failure", 1, tableSource.getNumClosed());
+        }
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderSourceForNullRow() throws IOException {
+        rows.add(null);
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableBuilder.render(tableSource, new StringBuilder());
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderSourceForWrongNumberOfColumnWidths() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("expected 3 column widths");
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        textTableBuilder.render(tableSource, new StringBuilder(), 1, 2);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderSourceForNegativeColumnWidth() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("cannot be negative");
+        expectedException.reportMissingExceptionWithMessage("expected IAE for negative width");
+        textTableBuilder.render(tableSource, new StringBuilder(), 1, -2, 3);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderForNullSource() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableBuilder.render((TableSource) null, new StringBuilder());
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testRenderSourceForNullColumnWidths() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableBuilder.render(tableSource, new StringBuilder(), (int[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    /**
+     * Source over a list of rows that counts how many times its rows are opened and closed.
+     */
+    private static final class CountingTableSource implements TableSource {
+
+        private final List<List<Object>> rows;
+
+        private int numOpened;
+
+        private int numClosed;
+
+        private CountingTableSource(final List<List<Object>> rows) {
+            this.rows = rows;
+        }
+
+        private int getNumOpened() {
+            return numOpened;
+        }
+
+        private int getNumClosed() {
+            return numClosed;
+        }
+
+        @Override
+        public Iterator<? extends Collection<?>> openRows() {
+            numOpened++;
+            final Iterator<List<Object>> iterator = rows.iterator();
+            return new CloseableIterator() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public List<Object> next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    numClosed++;
+                }
+            };
+        }
+
+    }
+
+    private interface CloseableIterator extends Iterator<List<Object>>, Closeable {
+
+    }
+
+}
@@ -734,6 +734,39 @@ public class TextTableBuilderToStringTest {
         );
     }
 
+    @Test
+    public void testShowRowNumsWidthAfterAddingRowsToString() {
+        textTableBuilder.showRowNums();
+        for (int i = 0; i < 9; i++) {
+            textTableBuilder.addRow("a", "b", "c");
+        }
+        textTableBuilder.toString();
+        // row number column gets wider with the tenth row
+        textTableBuilder.addRow("a", "b", "c");
+        // and narrower again when a wider format is removed
+        textTableBuilder.setRowNumFormat(new DecimalFormat("000"));
+        textTableBuilder.toString();
+        textTableBuilder.setRowNumFormat(null);
+        assertEquals(
+                TO_STRING_DID_NOT_PRODUCED_EXPECTED_VALUE,
+                joinForTable(
+                        "+----+---+---+---+",
+                        "|  1 | a | b | c |",
+                        "|  2 | a | b | c |",
+                        "|  3 | a | b | c |",
+                        "|  4 | a | b | c |",
+                        "|  5 | a | b | c |",
+                        "|  6 | a | b | c |",
+                        "|  7 | a | b | c |",
+                        "|  8 | a | b | c |",
+                        "|  9 | a | b | c |",
+                        "| 10 | a | b | c |",
+                        "+----+---+---+---+"
+                ),
+                textTableBuilder.toString()
+        );
+    }
+
     @Test
     public void testShowRowThenClearNumsToString() {
         textTableBuilder.setHeaders("h", "h", "h");
@@ -1096,4 +1129,70 @@ public class TextTableBuilderToStringTest {
         );
     }
 
+    @Test
+    public void testToStringCallsItemToStringOnce() {
+        final CountingItem header = new CountingItem("hh");
+        final CountingItem item = new CountingItem("aaaa");
+        textTableBuilder.setHeaders(header, "h");
+        textTableBuilder.addRow(item, "b");
+        textTableBuilder.setRepeatHeadersAtBottom(true);
+        // items are measured once when added
+        final int itemToStringCountBeforeToString = item.getToStringCount();
+        assertEquals(
+                TO_STRING_DID_NOT_PRODUCED_EXPECTED_VALUE,
+                joinForTable(
+                        "+------+---+",
+                        "| hh   | h |",
+                        "+------+---+",
+                        "| aaaa | b |",
+                        "+------+---+",
+                        "| hh   | h |",
+                        "+------+---+"
+                ),
+                textTableBuilder.toString()
+        );
+        assertEquals("header toString() not called exactly once", 1, header.getToStringCount());
+        assertEquals(
+                "item toString() not called exactly once",
+                itemToStringCountBeforeToString + 1,
+                item.getToStringCount()
+        );
+    }
+
+    @Test
+    public void testAddRowAfterToStringToString() {
+        textTableBuilder.addRow("a", "b");
+        textTableBuilder.toString();
+        textTableBuilder.addRow("ccc", null);
+        textTableBuilder.setNullColumnReplacement("NULL");
+        assertEquals(
+                TO_STRING_DID_NOT_PRODUCED_EXPECTED_VALUE,
+                joinForTable(
+                        "+-----+------+",
+                        "| a   | b    |",
+                        "| ccc | NULL |",
+                        "+-----+------+"
+                ),
+                textTableBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testClearRowsThenAddNarrowerRowsToString() {
+        textTableBuilder.addRow("aaaa", null);
+        textTableBuilder.setNullColumnReplacement("NULL");
+        textTableBuilder.toString();
+        textTableBuilder.clearRows();
+        textTableBuilder.addRow("a", "b");
+        assertEquals(
+                TO_STRING_DID_NOT_PRODUCED_EXPECTED_VALUE,
+                joinForTable(
+                        "+---+---+",
+                        "| a | b |",
+                        "+---+---+"
+                ),
+                textTableBuilder.toString()
+        );
+    }
+
 }
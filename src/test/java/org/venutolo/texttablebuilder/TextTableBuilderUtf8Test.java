@@ -0,0 +1,228 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.BoxDrawingCharacters.ASCII;
+import static org.venutolo.texttablebuilder.BoxDrawingCharacters.DOUBLE;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableBuilderUtf8Test {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String NOT_SAME_AS_ENCODED_TO_STRING =
+            "encoded table is not equal to toString() encoded as UTF-8";
+
+    private static final String EXPECTED_IAE_FOR_NULL_DESTINATION =
+            "expected IAE for null destination";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TextTableBuilder textTableBuilder;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setHeaders("ascii", "two bytes", "three bytes", "four bytes")
+                .setShowRowNums(true)
+                .setLinePrepender("»")
+                .setNullColumnReplacement("∅");
+        // enough rows to fill the encoding buffer several times
+        for (int i = 0; i < 1000; i++) {
+            textTableBuilder.addRow("a" + i, "é" + i, "€" + i, "😀" + i);
+        }
+        // unpaired surrogates and a null item
+        textTableBuilder.addRow("\uD83D", "\uDE00", "x\uD83Dx", null);
+    }
+
+    private byte[] getExpectedBytes() {
+        return ToStringBuilder.getToStringFor(textTableBuilder).getBytes(UTF_8);
+    }
+
+    private byte[] writeToOutputStream() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        textTableBuilder.writeUtf8To(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private byte[] writeToByteBuffer() {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(getExpectedBytes().length);
+        textTableBuilder.writeUtf8To(byteBuffer);
+        assertEquals("byte buffer was not filled", 0, byteBuffer.remaining());
+        return byteBuffer.array();
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final FileInputStream fileInputStream = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += fileInputStream.read(bytes, offset, bytes.length - offset);
+            }
+        } finally {
+            fileInputStream.close();
+        }
+        return bytes;
+    }
+
+    private byte[] writeToFile() throws IOException {
+        final File file = temporaryFolder.newFile();
+        textTableBuilder.writeUtf8To(file);
+        return readFile(file);
+    }
+
+    private void assertSameAsEncodedToString() throws IOException {
+        assertArrayEquals(NOT_SAME_AS_ENCODED_TO_STRING, getExpectedBytes(), writeToOutputStream());
+        assertArrayEquals(NOT_SAME_AS_ENCODED_TO_STRING, getExpectedBytes(), writeToByteBuffer());
+        assertArrayEquals(NOT_SAME_AS_ENCODED_TO_STRING, getExpectedBytes(), writeToFile());
+    }
+
+    @Test
+    public void testWriteUtf8() throws IOException {
+        assertSameAsEncodedToString();
+    }
+
+    @Test
+    public void testWriteUtf8WithOtherBoxDrawingCharacters() throws IOException {
+        textTableBuilder.setBoxDrawingCharacters(DOUBLE);
+        assertSameAsEncodedToString();
+        textTableBuilder.setBoxDrawingCharacters(ASCII);
+        assertSameAsEncodedToString();
+    }
+
+    @Test
+    public void testWriteUtf8AsciiTable() throws IOException {
+        textTableBuilder = new TextTableBuilder()
+                .setBoxDrawingCharacters(ASCII)
+                .setHeaders("h1", "h2")
+                .addRow("a", "b");
+        assertSameAsEncodedToString();
+    }
+
+    @Test
+    public void testWriteUtf8EmptyTable() throws IOException {
+        textTableBuilder = new TextTableBuilder();
+        assertSameAsEncodedToString();
+    }
+
+    @Test
+    public void testWriteUtf8FromRenderCache() throws IOException {
+        textTableBuilder.toString();
+        assertSameAsEncodedToString();
+        assertEquals("wrong number of render cache hits", 3, textTableBuilder.getRenderCacheHits());
+    }
+
+    @Test
+    public void testWriteUtf8ToByteBufferAtPosition() {
+        final byte[] expected = getExpectedBytes();
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(expected.length + 2);
+        byteBuffer.put((byte) 1);
+        assertSame(
+                "writeUtf8To did not return the given byte buffer",
+                byteBuffer,
+                textTableBuilder.writeUtf8To(byteBuffer)
+        );
+        assertEquals("byte buffer not positioned after table", expected.length + 1, byteBuffer.position());
+        assertArrayEquals(
+                NOT_SAME_AS_ENCODED_TO_STRING,
+                expected,
+                Arrays.copyOfRange(byteBuffer.array(), 1, expected.length + 1)
+        );
+    }
+
+    @Test
+    public void testWriteUtf8ToByteBufferOverflow() {
+        expectedException.expect(BufferOverflowException.class);
+        textTableBuilder.writeUtf8To(ByteBuffer.allocate(100));
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteUtf8ToOutputStreamFlushes() throws IOException {
+        final boolean[] flushed = {false};
+        textTableBuilder.writeUtf8To(
+                new OutputStream() {
+                    @Override
+                    public void write(final int b) {
+                    }
+
+                    @Override
+                    public void flush() {
+                        flushed[0] = true;
+                    }
+                }
+        );
+        assertTrue("output stream was not flushed", flushed[0]);
+    }
+
+    @Test
+    public void testWriteUtf8ToFileReplacesContents() throws IOException {
+        final File file = temporaryFolder.newFile();
+        final FileOutputStream fileOutputStream = new FileOutputStream(file);
+        try {
+            // longer than the table, so that leftover bytes would show
+            fileOutputStream.write(new byte[getExpectedBytes().length * 2]);
+        } finally {
+            fileOutputStream.close();
+        }
+        textTableBuilder.writeUtf8To(file);
+        assertArrayEquals(NOT_SAME_AS_ENCODED_TO_STRING, getExpectedBytes(), readFile(file));
+    }
+
+    @Test
+    public void testWriteUtf8ToFileForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_DESTINATION);
+        textTableBuilder.writeUtf8To((File) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteUtf8ToOutputStreamForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_DESTINATION);
+        textTableBuilder.writeUtf8To((OutputStream) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteUtf8ToByteBufferForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL_DESTINATION);
+        textTableBuilder.writeUtf8To((ByteBuffer) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,363 @@
+package org.venutolo.texttablebuilder;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.venutolo.texttablebuilder.Alignment.LEFT;
+import static org.venutolo.texttablebuilder.Alignment.RIGHT;
+import static org.venutolo.texttablebuilder.BoxDrawingCharacters.ASCII;
+import static org.venutolo.texttablebuilder.CellOverflow.OVERFLOW;
+import static org.venutolo.texttablebuilder.CellOverflow.TRUNCATE;
+import static org.venutolo.texttablebuilder.TestStrings.BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING;
+import static org.venutolo.texttablebuilder.TestStrings.CANNOT_BE_NULL;
+import static org.venutolo.texttablebuilder.TestStrings.EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH;
+import static org.venutolo.texttablebuilder.TestStrings.GETTER_SETTER_VALUE_NOT_EQUAL;
+import static org.venutolo.texttablebuilder.TestStrings.SHOULD_NOT_REACH_THIS_POINT;
+
+/**
+ * @author Rick Venutolo
+ */
+public class TextTableWriterTest {
+
+    private static final String NOT_SAME_AS_BUILDER =
+            "written table is not equal to the builder's table with the same rows";
+
+    private static final String EXPECTED_IAE_FOR_NULL = "expected IAE for null";
+
+    private static final String EXPECTED_ISE = "expected ISE";
+
+    private static final Object[][] ROWS = {
+            {"a", 1},
+            {"bbb", null},
+            {"cc", 333},
+            {"d", 4},
+            {"eeeee", 55}
+    };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private TextTableBuilder textTableBuilder;
+
+    private StringBuilder stringBuilder;
+
+    private TextTableWriter textTableWriter;
+
+    @Before
+    public void setUp() {
+        textTableBuilder = new TextTableBuilder()
+                .setBoxDrawingCharacters(ASCII)
+                .setHeaders("h1", "h2")
+                .setColumnAlignments(LEFT, RIGHT)
+                .setShowRowNums(true)
+                .setRowNumFormat(new DecimalFormat("00"))
+                .setRepeatHeadersEveryXRows(2)
+                .setRepeatHeadersAtBottom(true)
+                .setNullColumnReplacement("NULL");
+        stringBuilder = new StringBuilder();
+        textTableWriter = textTableBuilder.newWriter(stringBuilder);
+    }
+
+    private String getBuilderToString() {
+        for (final Object[] row : ROWS) {
+            textTableBuilder.addRow(row);
+        }
+        return textTableBuilder.toString();
+    }
+
+    private void writeRows() throws IOException {
+        for (final Object[] row : ROWS) {
+            textTableWriter.writeRow(row);
+        }
+        textTableWriter.finish();
+    }
+
+    @Test
+    public void testDefaults() {
+        assertNull("Default state column widths is incorrect", textTableWriter.getColumnWidths());
+        assertNull("Default state row number width is incorrect", textTableWriter.getRowNumWidth());
+        assertEquals("Default state measured rows is incorrect", 1, textTableWriter.getMeasuredRows());
+        assertSame("Default state cell overflow is incorrect", OVERFLOW, textTableWriter.getCellOverflow());
+    }
+
+    @Test
+    public void testSetAndGetOptions() {
+        textTableWriter.setColumnWidths(1, 2, 3)
+                       .setMeasuredRows(5)
+                       .setRowNumWidth(4)
+                       .setCellOverflow(TRUNCATE);
+        assertArrayEquals(
+                GETTER_SETTER_VALUE_NOT_EQUAL,
+                new int[]{1, 2, 3},
+                textTableWriter.getColumnWidths()
+        );
+        assertEquals(GETTER_SETTER_VALUE_NOT_EQUAL, 5, textTableWriter.getMeasuredRows());
+        assertEquals(
+                GETTER_SETTER_VALUE_NOT_EQUAL,
+                Integer.valueOf(4),
+                textTableWriter.getRowNumWidth()
+        );
+        assertSame(GETTER_SETTER_VALUE_NOT_EQUAL, TRUNCATE, textTableWriter.getCellOverflow());
+    }
+
+    @Test
+    public void testWriteMeasuringAllRows() throws IOException {
+        textTableWriter.setMeasuredRows(ROWS.length).setRowNumWidth(2);
+        writeRows();
+        assertEquals(NOT_SAME_AS_BUILDER, getBuilderToString(), stringBuilder.toString());
+        assertEquals("wrong number of rows", ROWS.length, textTableWriter.getNumRows());
+    }
+
+    @Test
+    public void testWriteWithColumnWidths() throws IOException {
+        textTableWriter.setColumnWidths(2, 5, 4);
+        textTableWriter.writeRow(ROWS[0]);
+        // top, header, interior, row 1
+        assertEquals(
+                "first row was not written immediately",
+                4,
+                stringBuilder.toString().split("\n").length
+        );
+        for (int i = 1; i < ROWS.length; i++) {
+            textTableWriter.writeRow(ROWS[i]);
+        }
+        textTableWriter.finish();
+        assertEquals(NOT_SAME_AS_BUILDER, getBuilderToString(), stringBuilder.toString());
+    }
+
+    @Test
+    public void testWriteHoldsMeasuredRows() throws IOException {
+        textTableWriter.setMeasuredRows(3);
+        textTableWriter.writeRow(ROWS[0]);
+        textTableWriter.writeRow(ROWS[1]);
+        assertEquals("measured rows were written", 0, stringBuilder.length());
+        textTableWriter.writeRow(ROWS[2]);
+        // top, header, interior, rows 1-2, interior, header, interior, row 3
+        assertEquals(
+                "rows were not written once measured",
+                9,
+                stringBuilder.toString().split("\n").length
+        );
+        textTableWriter.writeRow(ROWS[3]);
+        // row 4, interior, header
+        assertEquals(
+                "row after the measured rows was not written",
+                12,
+                stringBuilder.toString().split("\n").length
+        );
+    }
+
+    @Test
+    public void testWriteWritesFirstRowWithDefaultMeasuredRows() throws IOException {
+        textTableWriter.writeRow(ROWS[0]);
+        // top, header, interior, row 1
+        assertEquals(
+                "first row was not written once measured",
+                4,
+                stringBuilder.toString().split("\n").length
+        );
+    }
+
+    @Test
+    public void testWriteWithMeasuredRowsWidths() throws IOException {
+        // widths are those of the first row, later rows overflow
+        textTableWriter.setRowNumWidth(2);
+        writeRows();
+        final String[] lines = stringBuilder.toString().split("\n");
+        assertEquals("wrong top line", "+----+----+----+", lines[0]);
+        assertEquals("wrong row line", "| 01 | a  |  1 |", lines[3]);
+        assertEquals("wrong row line", "| 05 | eeeee | 55 |", lines[13]);
+    }
+
+    private static void assertLinesAligned(final String written) {
+        final String[] lines = written.split("\n");
+        for (final String line : lines) {
+            assertEquals("line is not aligned: " + line, lines[0].length(), line.length());
+        }
+    }
+
+    @Test
+    public void testWriteManyRowsWithRowNums() throws IOException {
+        textTableWriter = new TextTableBuilder()
+                .setBoxDrawingCharacters(ASCII)
+                .setHeaders("h1")
+                .setShowRowNums(true)
+                .newWriter(stringBuilder);
+        for (int i = 0; i < 150; i++) {
+            textTableWriter.writeRow("x");
+        }
+        textTableWriter.finish();
+        assertLinesAligned(stringBuilder.toString());
+    }
+
+    @Test
+    public void testWriteManyRowsWithRowNumsWithoutMeasuredRows() throws IOException {
+        textTableWriter = new TextTableBuilder()
+                .setBoxDrawingCharacters(ASCII)
+                .setHeaders("h1")
+                .setShowRowNums(true)
+                .newWriter(stringBuilder)
+                .setMeasuredRows(0);
+        for (int i = 0; i < 12; i++) {
+            textTableWriter.writeRow("x");
+        }
+        textTableWriter.finish();
+        assertLinesAligned(stringBuilder.toString());
+    }
+
+    @Test
+    public void testWriteWithTruncation() throws IOException {
+        textTableWriter.setColumnWidths(1, 3, 2).setCellOverflow(TRUNCATE);
+        textTableWriter.writeRow("abcdef", 12345);
+        textTableWriter.writeRow("ab😀", 1);
+        textTableWriter.finish();
+        final String[] lines = stringBuilder.toString().split("\n");
+        // columns are still as wide as the headers, and row numbers are not truncated
+        assertEquals("wrong truncated row line", "| 01 | abc | 12 |", lines[3]);
+        // does not split the surrogate pair
+        assertEquals("wrong truncated row line", "| 02 | ab  |  1 |", lines[4]);
+    }
+
+    @Test
+    public void testFinishWithoutRows() throws IOException {
+        textTableWriter.setRowNumWidth(0).finish();
+        assertEquals(NOT_SAME_AS_BUILDER, textTableBuilder.toString(), stringBuilder.toString());
+    }
+
+    @Test
+    public void testWriteWithoutHeaders() throws IOException {
+        textTableWriter = new TextTableBuilder().newWriter(stringBuilder).setMeasuredRows(10);
+        textTableWriter.writeRow("a", "b", "c");
+        textTableWriter.finish();
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRow("a", "b", "c").toString(),
+                stringBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testWriterUnchangedByBuilder() throws IOException {
+        textTableWriter.setColumnWidths(2, 5, 4);
+        final String expected = getBuilderToString();
+        textTableBuilder.setShowRowNums(false)
+                        .setHeaders("x", "y")
+                        .setBoxDrawingCharacters(BoxDrawingCharacters.LIGHT);
+        writeRows();
+        assertEquals("writer was changed by the builder", expected, stringBuilder.toString());
+    }
+
+    @Test
+    public void testNumColumnsNotSetByBuilderRows() throws IOException {
+        final TextTableBuilder rowsOnlyBuilder = new TextTableBuilder().addRow("a", "b");
+        textTableWriter = rowsOnlyBuilder.newWriter(stringBuilder);
+        textTableWriter.writeRow("a");
+        textTableWriter.finish();
+        assertEquals(
+                NOT_SAME_AS_BUILDER,
+                new TextTableBuilder().addRow("a").toString(),
+                stringBuilder.toString()
+        );
+    }
+
+    @Test
+    public void testSetOptionAfterWriting() throws IOException {
+        textTableWriter.writeRow(ROWS[0]);
+        expectedException.expect(IllegalStateException.class);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_ISE);
+        textTableWriter.setCellOverflow(TRUNCATE);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteRowAfterFinish() throws IOException {
+        textTableWriter.finish();
+        expectedException.expect(IllegalStateException.class);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_ISE);
+        textTableWriter.writeRow(ROWS[0]);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testFinishAfterFinish() throws IOException {
+        textTableWriter.finish();
+        expectedException.expect(IllegalStateException.class);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_ISE);
+        textTableWriter.finish();
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteRowForWrongNumberOfColumns() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(BAD_COLUMN_LENGTH_MESSAGE_SUBSTRING);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        textTableWriter.writeRow("a", "b", "c");
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testSetColumnWidthsForWrongNumberOfColumns() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("expected 3 column widths");
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_BAD_COLUMN_LENGTH);
+        textTableWriter.setColumnWidths(1, 2);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testSetMeasuredRowsForNegative() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("cannot be negative");
+        expectedException.reportMissingExceptionWithMessage("expected IAE for negative rows");
+        textTableWriter.setMeasuredRows(-1);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testSetRowNumWidthForNegative() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("cannot be negative");
+        expectedException.reportMissingExceptionWithMessage("expected IAE for negative width");
+        textTableWriter.setRowNumWidth(-1);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testWriteRowForNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableWriter.writeRow((Object[]) null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testSetCellOverflowForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableWriter.setCellOverflow(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+    @Test
+    public void testNewWriterForNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(CANNOT_BE_NULL);
+        expectedException.reportMissingExceptionWithMessage(EXPECTED_IAE_FOR_NULL);
+        textTableBuilder.newWriter(null);
+        fail(SHOULD_NOT_REACH_THIS_POINT);
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.venutolo.texttablebuilder;
+
+/**
+ * Table item whose string representation cannot be created.
+ *
+ * @author Rick Venutolo
+ */
+final class ThrowingItem {
+
+    static final String MESSAGE = "toString() failed";
+
+    @Override
+    public String toString() {
+        throw new IllegalStateException(MESSAGE);
+    }
+
+}